@@ -0,0 +1,240 @@
+package com.erp.api.clients;
+
+import com.erp.utils.config.ConfigProvider;
+import com.erp.utils.config.TestConfig;
+import com.erp.utils.metrics.ClientMetrics;
+import io.restassured.response.Response;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * 📈 AIMD limit on in-flight API requests, tuned by observed latency (api.adaptive.enabled=true)
+ * <p>
+ * Works in windows of max(limit, api.adaptive.window.min.samples) completed requests:
+ * - window had overload signals (see {@link #isOverloaded(Response)}), or mean latency > baseline × api.adaptive.latency.tolerance
+ *   → limit × api.adaptive.backoff.ratio (multiplicative decrease)
+ * - otherwise, if the window actually used the whole limit → limit + 1 (additive increase)
+ * <p>
+ * Baseline = lowest window mean seen so far, slowly drifting up, so a backend that got
+ * permanently slower does not pin the limit to the minimum.
+ * <p>
+ * Bounds: api.adaptive.min.limit .. api.max.concurrent.requests (the fixed ConcurrencyLimiter stays a hard cap).
+ * Gauges in ClientMetrics: api.adaptive.limit / api.adaptive.inflight
+ */
+@Slf4j
+public class AdaptiveConcurrencyLimiter {
+
+    // Наскільки швидко базова латентність підтягується до поточної (на вікно)
+    private static final double BASELINE_DRIFT = 0.05;
+
+    private static volatile AdaptiveConcurrencyLimiter sharedInstance;
+
+    private final boolean enabled;
+    private final int minLimit;
+    private final int maxLimit;
+    private final double latencyTolerance;
+    private final double backoffRatio;
+    private final int minWindowSamples;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition slotFreed = lock.newCondition();
+
+    // Стан нижче - тільки під lock
+    private int limit;
+    private int inFlight;
+    private double baselineMillis = Double.NaN;
+    private int windowSamples;
+    private long windowLatencyMillis;
+    private int windowErrors;
+    private int windowPeakInFlight;
+
+    public AdaptiveConcurrencyLimiter(boolean enabled, int initialLimit, int minLimit, int maxLimit,
+                                      double latencyTolerance, double backoffRatio, int minWindowSamples) {
+        this.enabled = enabled;
+        this.minLimit = Math.max(1, minLimit);
+        this.maxLimit = Math.max(this.minLimit, maxLimit);
+        this.limit = Math.max(this.minLimit, Math.min(initialLimit, this.maxLimit));
+        this.latencyTolerance = latencyTolerance;
+        this.backoffRatio = backoffRatio;
+        this.minWindowSamples = Math.max(1, minWindowSamples);
+    }
+
+    public static AdaptiveConcurrencyLimiter shared() {
+        if (sharedInstance == null) {
+            synchronized (AdaptiveConcurrencyLimiter.class) {
+                if (sharedInstance == null) {
+                    TestConfig config = ConfigProvider.getConfig();
+                    sharedInstance = new AdaptiveConcurrencyLimiter(
+                            config.apiAdaptiveEnabled(),
+                            config.apiAdaptiveInitialLimit(),
+                            config.apiAdaptiveMinLimit(),
+                            config.maxConcurrentRequests(),
+                            config.apiAdaptiveLatencyTolerance(),
+                            config.apiAdaptiveBackoffRatio(),
+                            config.apiAdaptiveWindowMinSamples());
+                    if (sharedInstance.enabled) {
+                        ClientMetrics.gauge("api.adaptive.limit", sharedInstance::getLimit);
+                        ClientMetrics.gauge("api.adaptive.inflight", sharedInstance::getInFlight);
+                        log.info("📈 Adaptive concurrency limit enabled (initial={}, min={}, max={})",
+                                sharedInstance.limit, sharedInstance.minLimit, sharedInstance.maxLimit);
+                    }
+                }
+            }
+        }
+        return sharedInstance;
+    }
+
+    /**
+     * Виконує запит в межах поточного ліміту і враховує його результат
+     */
+    public Response call(Supplier<Response> action) {
+        if (!enabled) {
+            return action.get();
+        }
+        long start = acquire();
+        boolean overloaded = true;
+        try {
+            Response response = action.get();
+            overloaded = isOverloaded(response);
+            return response;
+        } finally {
+            if (DeadlineExecutor.isCancelled()) {
+                // Програний дубль обірвано нами, а не сервером - це не сигнал перевантаження
+                cancel();
+            } else {
+                release(start, overloaded);
+            }
+        }
+    }
+
+    /**
+     * Займає слот; повертає момент старту для {@link #release}
+     */
+    public long acquire() {
+        if (!enabled) {
+            return System.nanoTime();
+        }
+        lock.lock();
+        try {
+            while (inFlight >= limit) {
+                slotFreed.await();
+            }
+            inFlight++;
+            windowPeakInFlight = Math.max(windowPeakInFlight, inFlight);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for an adaptive request slot", e);
+        } finally {
+            lock.unlock();
+        }
+        return System.nanoTime();
+    }
+
+    /**
+     * Звільняє слот; overloaded - див. {@link #isOverloaded(Response)} або помилка транспорту
+     */
+    public void release(long startNanos, boolean overloaded) {
+        if (!enabled) {
+            return;
+        }
+        long latencyMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+        lock.lock();
+        try {
+            inFlight--;
+            windowSamples++;
+            windowLatencyMillis += latencyMillis;
+            if (overloaded) {
+                windowErrors++;
+            }
+            if (windowSamples >= Math.max(limit, minWindowSamples)) {
+                adjustLimit();
+            }
+            // Ліміт міг вирости - будимо всіх, зайві знову заснуть
+            slotFreed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Звільняє слот без вибірки латентності - запит так і не був відправлений
+     */
+    public void cancel() {
+        if (!enabled) {
+            return;
+        }
+        lock.lock();
+        try {
+            inFlight--;
+            slotFreed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Чи є відповідь сигналом перевантаження, а не звичайною відповіддю застосунку
+     * <p>
+     * 502/504 - gateway не дочекався бекенду; 429/503 - тільки з Retry-After (явне скидання навантаження).
+     * Інші 5xx / 429 / 503 negative та RBAC тести можуть очікувати - вони ліміт не зменшують.
+     */
+    public static boolean isOverloaded(Response response) {
+        int statusCode = response.getStatusCode();
+        if (statusCode == 502 || statusCode == 504) {
+            return true;
+        }
+        return (statusCode == 429 || statusCode == 503) && response.getHeader("Retry-After") != null;
+    }
+
+    public int getLimit() {
+        lock.lock();
+        try {
+            return limit;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getInFlight() {
+        lock.lock();
+        try {
+            return inFlight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void adjustLimit() {
+        double meanMillis = (double) windowLatencyMillis / windowSamples;
+        if (Double.isNaN(baselineMillis) || meanMillis < baselineMillis) {
+            baselineMillis = meanMillis;
+        } else {
+            baselineMillis += (meanMillis - baselineMillis) * BASELINE_DRIFT;
+        }
+
+        int previous = limit;
+        // +1 мс - щоб мілісекундні відповіді локального бекенду не вважались "уповільненням"
+        boolean slow = meanMillis > baselineMillis * latencyTolerance + 1;
+        if (windowErrors > 0 || slow) {
+            limit = Math.max(minLimit, (int) (limit * backoffRatio));
+            ClientMetrics.increment("api.adaptive.decrease");
+        } else if (windowPeakInFlight >= limit && limit < maxLimit) {
+            limit++;
+            ClientMetrics.increment("api.adaptive.increase");
+        }
+
+        if (limit != previous) {
+            log.debug("📈 Adaptive limit {} → {} (mean={} ms, baseline={} ms, errors={})",
+                    previous, limit, Math.round(meanMillis), Math.round(baselineMillis), windowErrors);
+        }
+
+        windowSamples = 0;
+        windowLatencyMillis = 0;
+        windowErrors = 0;
+        windowPeakInFlight = inFlight;
+    }
+}
@@ -3,25 +3,86 @@ package com.erp.api.clients;
 import com.erp.api.endpoints.ApiEndpointDefinition;
 import com.erp.enums.UserRole;
 import com.erp.utils.auth.AuthService;
+import com.erp.utils.SingleFlight;
+import com.erp.utils.config.ConfigProvider;
+import com.erp.utils.metrics.ClientMetrics;
 import io.qameta.allure.Step;
+import io.restassured.http.Method;
 import io.restassured.response.Response;
+import io.restassured.specification.RequestSpecification;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
-import java.util.HashMap;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 @Slf4j
 @RequiredArgsConstructor
 public class ApiExecutor {
 
-    // Кеш сесій (Thread-safe)
-    private final Map<UserRole, Map<String, String>> roleSessionCache = new ConcurrentHashMap<>();
+    private static final Map<String, String> NO_COOKIES = Collections.emptyMap();
+
+    // Потоки scatter-gather запитів (executeForRoles)
+    private static final ThreadFactory ROLE_THREADS = Thread.ofVirtual().name("role-", 0).factory();
+
+    // Підготовка async-запитів (логін, очікування лімітерів) - поза потоком, що викликав executeAsync
+    private static final ExecutorService ASYNC_STARTERS = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("api-async-", 0).factory());
+
+    // Однакові GET запити в польоті (endpoint:role:path) - спільні для всіх ApiExecutor
+    private static final SingleFlight<String, Response> IN_FLIGHT_GETS = new SingleFlight<>();
+
+    // Готові шаблони запитів per (endpoint, role) - базова специфікація + куки сесії
+    private final Map<TemplateKey, RequestTemplate> requestTemplates = new ConcurrentHashMap<>();
 
     private final SessionClient apiClient;
     private final AuthService authService;
 
+    // Спільний non-blocking клієнт (HTTP/2) для executeAsync
+    private final AsyncSessionClient asyncClient = AsyncSessionClient.shared();
+
+    // Глобальний та per-endpoint ліміт одночасних запитів
+    private final ConcurrencyLimiter concurrencyLimiter = ConcurrencyLimiter.shared();
+
+    // Ліміт, що підлаштовується під латентність бекенду (всередині фіксованих лімітів)
+    private final AdaptiveConcurrencyLimiter adaptiveLimiter = AdaptiveConcurrencyLimiter.shared();
+
+    // Квоти запитів на секунду per (endpoint, role) та per role
+    private final RateLimiter rateLimiter = RateLimiter.shared();
+
+    // Кеш довідкових GET (EndpointPolicy.cacheable), спільний для всіх ApiExecutor
+    private final ResponseCache responseCache = ResponseCache.shared();
+
+    // Дублювання повільних GET (EndpointPolicy.hedged)
+    private final HedgedRequestExecutor hedgedExecutor = HedgedRequestExecutor.shared();
+
+    // Повтори тимчасових помилок (EndpointPolicy.retry) з глобальним бюджетом
+    private final RetryExecutor retryExecutor = RetryExecutor.shared();
+
+    // Дедлайн запиту (EndpointPolicy.timeoutMillis / api.timeout) з обривом з'єднання
+    private final DeadlineExecutor deadlineExecutor = DeadlineExecutor.shared();
+
+    // Недоступний бекенд → тести пропускаються (SkipException) замість чекати таймаутів
+    private final CircuitBreaker backendBreaker = CircuitBreaker.backend();
+
+    // Запис обмінів у журнал / офлайн відтворення (api.recorder.mode)
+    private final ExchangeRecorder recorder = ExchangeRecorder.shared();
+
+    // Кілька незалежних серверних сесій на роль (auth.session.pool.size)
+    private final SessionPool sessionPool = SessionPool.shared();
+
     /**
      * ✅ Головний публічний метод виконання запиту
      */
@@ -32,20 +93,96 @@ public class ApiExecutor {
             Object requestBody,
             String pathParam
     ) {
-        Map<String, String> sessionCookies = getSessionForRole(role);
+        if (recorder.isReplaying()) {
+            // Офлайн прогін: відповідь з журналу, без логіну та бекенду
+            return recorder.replay(endpoint, role, resolvePath(endpoint, pathParam), requestBody);
+        }
 
-        String path = (pathParam != null)
-                ? endpoint.getPath(pathParam)
-                : endpoint.getPath();
+        String path = resolvePath(endpoint, pathParam);
+        try (SessionPool.Lease lease = sessionPool.acquire(role)) {
+            Map<String, String> sessionCookies = getSessionForRole(role, lease.slot());
+            Response response = execute(endpoint, role, requestBody, path, lease.slot(), sessionCookies);
+
+            // Сесія з попереднього прогону (auth.store.enabled), яку бекенд вже не знає - логін і один повтор
+            if (response.getStatusCode() == 401 && role != UserRole.ANONYMOUS && authService.evictRejectedSession(
+                    role.getUsername(), role.getPassword(), lease.slot(), sessionCookies)) {
+                response = execute(endpoint, role, requestBody, path, lease.slot(),
+                        getSessionForRole(role, lease.slot()));
+            }
+            // Тільки відповідь, яку отримав тест (кеш і спільні GET теж) - відхилена 401 в журнал не потрапляє
+            recorder.record(endpoint, role, path, requestBody, response);
+            return response;
+        }
+    }
 
+    private Response execute(ApiEndpointDefinition endpoint, UserRole role, Object requestBody, String path,
+                             int slot, Map<String, String> sessionCookies) {
         log.debug("Executing {} {} (Role: {})", endpoint.getHttpMethod(), path, role);
 
-        return apiClient.executeWithCookies(
-                endpoint.getHttpMethod(),
-                path,
-                requestBody,
-                sessionCookies
-        );
+        RequestSpecification template = getRequestTemplate(endpoint, role, slot, sessionCookies);
+
+        if (endpoint.getHttpMethod() != Method.GET) {
+            try {
+                return send(endpoint, role, template, path, requestBody);
+            } finally {
+                // Запис змінює дані сім'ї - закешовані GET більше не актуальні
+                responseCache.invalidate(endpoint.getPathFamily());
+            }
+        }
+
+        String key = endpoint.name() + ":" + role + ":" + path;
+        boolean cacheable = endpoint.getPolicy().isCacheable() && responseCache.isEnabled();
+
+        if (cacheable) {
+            Response cached = responseCache.get(key);
+            if (cached != null) {
+                return cached;
+            }
+        }
+
+        // Версія сім'ї береться до відправки: GET після запису не приєднається до старішого запиту
+        // і не закешує відповідь, що могла його не побачити
+        long familyVersion = responseCache.version(endpoint.getPathFamily());
+
+        // Зберігає в кеш тільки потік, що реально відправив запит (leader)
+        Supplier<Response> fetch = () -> {
+            Response response = send(endpoint, role, template, path, requestBody);
+            if (cacheable) {
+                responseCache.put(key, endpoint.getPathFamily(), familyVersion, response);
+            }
+            return response;
+        };
+
+        if (!ConfigProvider.getConfig().coalesceGetRequests()) {
+            return fetch.get();
+        }
+        return IN_FLIGHT_GETS.execute(key + "@" + familyVersion, fetch, () -> {
+            ClientMetrics.increment("api.get.coalesced");
+            log.debug("🛬 Joined in-flight request: {}", key);
+        });
+    }
+
+    private Response send(ApiEndpointDefinition endpoint, UserRole role, RequestSpecification template,
+                          String path, Object requestBody) {
+        // Кожна спроба (повтор, дубль) - окремий запит: спершу квота, потім слот
+        Supplier<Response> call = () -> {
+            rateLimiter.acquire(endpoint, role);
+            Response response = concurrencyLimiter.call(endpoint, () -> adaptiveLimiter.call(() ->
+                    apiClient.executeWithTemplate(template, endpoint.getHttpMethod(), path, requestBody)));
+            PayloadMetrics.record(endpoint, response);
+            return response;
+        };
+        Supplier<Response> attempt = hedgedExecutor.appliesTo(endpoint)
+                ? () -> hedgedExecutor.execute(endpoint, call)
+                : call;
+        // Дедлайн покриває всі спроби; по його завершенню з'єднання обриваються
+        // Недоступний бекенд - решта тестів пропускається одразу (CircuitBreaker)
+        return backendBreaker.call(() -> deadlineExecutor.execute(endpoint, () -> {
+            Response result = retryExecutor.execute(endpoint, attempt);
+            // Буферизуємо тіло до того, як відповідь побачать інші потоки
+            BufferedResponse.of(result);
+            return result;
+        }));
     }
 
     // --- Зручні перевантаження (Overloads) ---
@@ -63,24 +200,282 @@ public class ApiExecutor {
     }
 
     /**
-     * Логіка отримання/кешування сесії
+     * ⚡ Асинхронне виконання запиту (HTTP/2, без блокування потоку)
+     * <p>
+     * Використовує ті ж session cookies та метадані ApiEndpointDefinition, що й {@link #execute}.
+     * Дозволяє запустити сотні незалежних запитів паралельно:
+     * <pre>
+     * List&lt;CompletableFuture&lt;Response&gt;&gt; futures = bodies.stream()
+     *         .map(body -&gt; apiExecutor.executeAsync(RESOURCE_CREATE, UserRole.ADMIN, body))
+     *         .toList();
+     * CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+     * </pre>
+     * Логін ролі та очікування rate / concurrency лімітерів виконуються на virtual thread, тому виклик
+     * повертається одразу; їхні помилки (SkipException відкритого breaker'а тощо) приходять через future.
+     * <p>
+     * ⚠️ Async-трафік не проходить фільтри RestAssured: його немає в Allure, ExchangeCaptureFilter та HAR -
+     * лише в ExchangeRecorder і PayloadMetrics. Для запитів, які треба бачити в звіті, використовуйте {@link #execute}.
      */
-    protected Map<String, String> getSessionForRole(UserRole role) {
-        if (role == UserRole.ANONYMOUS) {
-            return new HashMap<>();
+    public CompletableFuture<Response> executeAsync(
+            ApiEndpointDefinition endpoint,
+            UserRole role,
+            Object requestBody,
+            String pathParam
+    ) {
+        if (recorder.isReplaying()) {
+            return CompletableFuture.completedFuture(
+                    recorder.replay(endpoint, role, resolvePath(endpoint, pathParam), requestBody));
         }
 
-        return roleSessionCache.computeIfAbsent(role, r -> {
-            log.info("🔐 Authenticating and caching session for: {}", role);
-            return authService.getSessionForUser(role.getUsername(), role.getPassword());
+        String path = resolvePath(endpoint, pathParam);
+        return CompletableFuture.supplyAsync(() -> startAsync(endpoint, role, path, requestBody), ASYNC_STARTERS)
+                .thenCompose(Function.identity());
+    }
+
+    /**
+     * Захоплює сесію та дозволи і відправляє запит; виконується в ASYNC_STARTERS
+     */
+    private CompletableFuture<Response> startAsync(
+            ApiEndpointDefinition endpoint,
+            UserRole role,
+            String path,
+            Object requestBody
+    ) {
+        AsyncPermits permits = new AsyncPermits(endpoint, sessionPool.acquire(role));
+        CompletableFuture<Response> future;
+        try {
+            Map<String, String> sessionCookies = getSessionForRole(role, permits.lease.slot());
+
+            log.debug("Executing async {} {} (Role: {})", endpoint.getHttpMethod(), path, role);
+
+            backendBreaker.acquirePermission();
+            permits.breaker = true;
+            rateLimiter.acquire(endpoint, role);
+            concurrencyLimiter.acquire(endpoint);
+            permits.concurrency = true;
+            permits.adaptiveStart = adaptiveLimiter.acquire();
+            permits.adaptive = true;
+            future = asyncClient.executeWithCookiesAsync(
+                    endpoint.getHttpMethod(),
+                    path,
+                    requestBody,
+                    sessionCookies,
+                    Duration.ofMillis(deadlineExecutor.timeoutFor(endpoint)));
+        } catch (Throwable e) {
+            // Запит не пішов - звільняємо те, що встигли захопити
+            permits.abort();
+            throw e;
+        }
+        return future.whenComplete((response, error) -> {
+            try {
+                if (response != null) {
+                    PayloadMetrics.record(endpoint, response);
+                }
+                if (endpoint.getHttpMethod() != Method.GET) {
+                    responseCache.invalidate(endpoint.getPathFamily());
+                }
+                if (response != null) {
+                    recorder.record(endpoint, role, path, requestBody, response);
+                }
+            } finally {
+                permits.complete(response, error);
+            }
+        }).exceptionally(error -> {
+            throw deadlineExecutor.translateAsync(endpoint, error);
         });
     }
 
+    public CompletableFuture<Response> executeAsync(ApiEndpointDefinition endpoint, UserRole role) {
+        return executeAsync(endpoint, role, null, null);
+    }
+
+    public CompletableFuture<Response> executeAsync(ApiEndpointDefinition endpoint, UserRole role, Object body) {
+        return executeAsync(endpoint, role, body, null);
+    }
+
+    public CompletableFuture<Response> executeAsync(ApiEndpointDefinition endpoint, UserRole role, String pathParam) {
+        return executeAsync(endpoint, role, null, pathParam);
+    }
+
+    /**
+     * 🔀 Scatter-gather: той самий запит для кількох ролей одночасно (кожна роль - свій віртуальний потік).
+     * <p>
+     * pathParamResolver дає pathParam для ролі (null - без параметра). Результат - в порядку UserRole.
+     * Якщо запит якоїсь ролі впав з винятком, виняток прокидається після завершення всіх ролей.
+     * <pre>
+     * Map&lt;UserRole, Response&gt; responses = apiExecutor.executeForRoles(
+     *         STATISTIC_GET_PLAN, List.of(ADMIN, OWNER_1, OWNER_2, ANONYMOUS), null, UserRole::getStoreId);
+     * </pre>
+     */
+    @Step("API Request: {endpoint} as {roles}")
+    public Map<UserRole, Response> executeForRoles(
+            ApiEndpointDefinition endpoint,
+            Collection<UserRole> roles,
+            Object requestBody,
+            Function<UserRole, String> pathParamResolver
+    ) {
+        Map<UserRole, Future<Response>> futures = new EnumMap<>(UserRole.class);
+        try (ExecutorService executor = Executors.newThreadPerTaskExecutor(ROLE_THREADS)) {
+            for (UserRole role : roles) {
+                String pathParam = pathParamResolver != null ? pathParamResolver.apply(role) : null;
+                // Обміни ролей потрапляють в буфер тестового потоку - видно при падінні тесту
+                futures.put(role, executor.submit(ExchangeCaptureFilter.sharingBuffer(
+                        () -> execute(endpoint, role, requestBody, pathParam))));
+            }
+        }
+
+        Map<UserRole, Response> responses = new EnumMap<>(UserRole.class);
+        RuntimeException failure = null;
+        for (Map.Entry<UserRole, Future<Response>> entry : futures.entrySet()) {
+            try {
+                responses.put(entry.getKey(), entry.getValue().get());
+            } catch (ExecutionException e) {
+                if (failure == null) {
+                    failure = e.getCause() instanceof RuntimeException runtimeException
+                            ? runtimeException
+                            : new IllegalStateException("Request as " + entry.getKey() + " failed", e.getCause());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for " + endpoint.name(), e);
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+        return responses;
+    }
+
+    /**
+     * Те саме, pathParam - storeId ролі, якщо шлях endpoint'а має параметр
+     */
+    public Map<UserRole, Response> executeForRoles(ApiEndpointDefinition endpoint, Collection<UserRole> roles,
+                                                   Object body) {
+        return executeForRoles(endpoint, roles, body,
+                endpoint.hasPathVariables() ? UserRole::getStoreId : null);
+    }
+
+    public Map<UserRole, Response> executeForRoles(ApiEndpointDefinition endpoint, Collection<UserRole> roles) {
+        return executeForRoles(endpoint, roles, null);
+    }
+
+    private String resolvePath(ApiEndpointDefinition endpoint, String pathParam) {
+        return (pathParam != null)
+                ? endpoint.getPath(pathParam)
+                : endpoint.getPath();
+    }
+
+    /**
+     * Повертає шаблон запиту для (endpoint, role).
+     * Шаблон перебудовується, якщо сесія ролі змінилась (наприклад, після clearSessionCache).
+     */
+    private RequestSpecification getRequestTemplate(
+            ApiEndpointDefinition endpoint,
+            UserRole role,
+            int slot,
+            Map<String, String> sessionCookies
+    ) {
+        return requestTemplates.compute(new TemplateKey(endpoint, role, slot), (key, existing) -> {
+            if (existing != null && existing.cookies() == sessionCookies) {
+                return existing;
+            }
+            log.debug("🧩 Building request template for {} as {} (session slot {})", endpoint.name(), role, slot);
+            return new RequestTemplate(sessionCookies, apiClient.buildTemplate(sessionCookies));
+        }).spec();
+    }
+
+    /**
+     * Сесія ролі з кешу AuthService (спільний для всіх ApiExecutor, single-flight логін, refresh-ahead).
+     * Поки сесія не оновлена, повертається той самий екземпляр мапи - шаблони запитів лишаються в кеші.
+     */
+    protected Map<String, String> getSessionForRole(UserRole role) {
+        return getSessionForRole(role, 0);
+    }
+
+    /**
+     * Сесія зі слоту пулу ролі (auth.session.pool.size)
+     */
+    protected Map<String, String> getSessionForRole(UserRole role, int slot) {
+        if (role == UserRole.ANONYMOUS) {
+            return NO_COOKIES;
+        }
+        return authService.getSession(role.getUsername(), role.getPassword(), slot);
+    }
+
     /**
      * Метод для примусового очищення кешу (наприклад, після тестів зміни пароля)
      */
     public void clearSessionCache() {
-        roleSessionCache.clear();
+        authService.clearSessionCache();
+        requestTemplates.clear();
         log.debug("🧹 Session cache cleared");
     }
+
+    // ==================== Inner Types ====================
+
+    private record TemplateKey(ApiEndpointDefinition endpoint, UserRole role, int slot) {
+    }
+
+    private record RequestTemplate(Map<String, String> cookies, RequestSpecification spec) {
+    }
+
+    /**
+     * Дозволи async-запиту; кожен захоплений звільняється рівно один раз -
+     * при завершенні запиту ({@link #complete}) або при винятку до відправки ({@link #abort})
+     */
+    private final class AsyncPermits {
+        private final ApiEndpointDefinition endpoint;
+        private final SessionPool.Lease lease;
+        private boolean breaker;
+        private boolean concurrency;
+        private boolean adaptive;
+        private long adaptiveStart;
+
+        AsyncPermits(ApiEndpointDefinition endpoint, SessionPool.Lease lease) {
+            this.endpoint = endpoint;
+            this.lease = lease;
+        }
+
+        void complete(Response response, Throwable error) {
+            try {
+                if (adaptive) {
+                    adaptiveLimiter.release(adaptiveStart,
+                            error != null || AdaptiveConcurrencyLimiter.isOverloaded(response));
+                }
+                if (breaker) {
+                    if (response != null) {
+                        backendBreaker.onSuccess();
+                    } else {
+                        backendBreaker.onFailure(error);
+                    }
+                }
+            } finally {
+                release();
+            }
+        }
+
+        void abort() {
+            try {
+                if (adaptive) {
+                    adaptiveLimiter.cancel();
+                }
+                if (breaker) {
+                    // Сервер не побачив запиту - про доступність нічого не відомо
+                    backendBreaker.releasePermission();
+                }
+            } finally {
+                release();
+            }
+        }
+
+        private void release() {
+            try {
+                if (concurrency) {
+                    concurrencyLimiter.release(endpoint);
+                }
+            } finally {
+                lease.close();
+            }
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,25 @@
+package com.erp.api.clients;
+
+import com.erp.api.endpoints.ApiEndpointDefinition;
+import lombok.Getter;
+
+/**
+ * ⏱️ Request did not complete within its deadline (EndpointPolicy.timeoutMillis or api.timeout)
+ * <p>
+ * Reported by Allure as a separate category "API timeouts" (see allure/categories.json).
+ */
+@Getter
+public class ApiTimeoutException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final ApiEndpointDefinition endpoint;
+    private final long timeoutMillis;
+
+    public ApiTimeoutException(ApiEndpointDefinition endpoint, long timeoutMillis, Throwable cause) {
+        super(String.format("%s %s exceeded deadline of %d ms",
+                endpoint.getHttpMethod(), endpoint.name(), timeoutMillis), cause);
+        this.endpoint = endpoint;
+        this.timeoutMillis = timeoutMillis;
+    }
+}
@@ -0,0 +1,198 @@
+package com.erp.api.clients;
+
+import com.erp.utils.config.ConfigProvider;
+import io.restassured.builder.ResponseBuilder;
+import io.restassured.http.Header;
+import io.restassured.http.Headers;
+import io.restassured.http.Method;
+import io.restassured.response.Response;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+import java.util.zip.ZipException;
+
+/**
+ * ⚡ Non-blocking session client on top of {@link java.net.http.HttpClient}
+ * <p>
+ * Features:
+ * - HTTP/2 with multiplexing (falls back to HTTP/1.1 if the server does not upgrade)
+ * - Same session cookies as {@link SessionClient}
+ * - Returns RestAssured {@link Response} so existing validators work unchanged
+ * - gzip/deflate negotiation with manual decoding (java.net.http does not decompress)
+ * <p>
+ * One shared instance is used for the whole suite, so all async calls share a handful of connections.
+ * <p>
+ * Not covered: RestAssured filters (Allure attachments, ExchangeCaptureFilter, HAR) never see this traffic -
+ * only ExchangeRecorder and PayloadMetrics do (via ApiExecutor.executeAsync).
+ */
+@Slf4j
+public class AsyncSessionClient {
+
+    private static volatile AsyncSessionClient sharedInstance;
+
+    private final String baseUrl;
+    private final HttpClient httpClient;
+    private final Duration requestTimeout;
+    private final boolean compressionEnabled;
+
+    public AsyncSessionClient(String baseUrl) {
+        this.baseUrl = baseUrl;
+        this.requestTimeout = Duration.ofSeconds(ConfigProvider.getTimeout());
+        this.compressionEnabled = ConfigProvider.getConfig().httpCompressionEnabled();
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(requestTimeout)
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+    }
+
+    /**
+     * Suite-wide instance (one HttpClient = one connection pool)
+     */
+    public static AsyncSessionClient shared() {
+        if (sharedInstance == null) {
+            synchronized (AsyncSessionClient.class) {
+                if (sharedInstance == null) {
+                    sharedInstance = new AsyncSessionClient(ConfigProvider.getBaseUrl());
+                    log.info("⚡ Async HTTP/2 client initialized for {}", ConfigProvider.getBaseUrl());
+                }
+            }
+        }
+        return sharedInstance;
+    }
+
+    /**
+     * Асинхронний аналог {@link SessionClient#executeWithCookies}
+     */
+    public CompletableFuture<Response> executeWithCookiesAsync(
+            Method method,
+            String path,
+            Object body,
+            Map<String, String> cookies
+    ) {
+        return executeWithCookiesAsync(method, path, body, cookies, requestTimeout);
+    }
+
+    /**
+     * Те саме з власним таймаутом; по його спливу запит скасовується (HttpTimeoutException)
+     */
+    public CompletableFuture<Response> executeWithCookiesAsync(
+            Method method,
+            String path,
+            Object body,
+            Map<String, String> cookies,
+            Duration timeout
+    ) {
+        HttpRequest request;
+        try {
+            request = buildRequest(method, path, body, cookies, timeout);
+        } catch (Exception e) {
+            return CompletableFuture.failedFuture(e);
+        }
+
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray())
+                .thenApply(this::toRestAssuredResponse);
+    }
+
+    private HttpRequest buildRequest(Method method, String path, Object body, Map<String, String> cookies,
+                                     Duration timeout) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder()
+                .uri(URI.create(baseUrl + path))
+                .header("Content-Type", "application/json")
+                .header("Accept", "application/json")
+                .method(method.name(), toBodyPublisher(body));
+
+        if (compressionEnabled) {
+            builder.header("Accept-Encoding", "gzip, deflate");
+        }
+
+        if (timeout != null && timeout.isPositive()) {
+            builder.timeout(timeout);
+        }
+
+        if (cookies != null && !cookies.isEmpty()) {
+            builder.header("Cookie", cookies.entrySet().stream()
+                    .map(e -> e.getKey() + "=" + e.getValue())
+                    .collect(Collectors.joining("; ")));
+        }
+
+        return builder.build();
+    }
+
+    private HttpRequest.BodyPublisher toBodyPublisher(Object body) {
+        if (body == null) {
+            return HttpRequest.BodyPublishers.noBody();
+        }
+        // Те саме тіло для кількох запитів серіалізується один раз
+        return HttpRequest.BodyPublishers.ofByteArray(RequestBodySerializer.toBytes(body));
+    }
+
+    /**
+     * Конвертує java.net.http відповідь у RestAssured Response
+     */
+    private Response toRestAssuredResponse(HttpResponse<byte[]> httpResponse) {
+        List<Header> headers = new ArrayList<>();
+        httpResponse.headers().map().forEach((name, values) ->
+                values.forEach(value -> headers.add(new Header(name, value))));
+
+        String encoding = httpResponse.headers().firstValue("Content-Encoding").orElse("");
+        byte[] body = decode(httpResponse.body(), encoding);
+
+        String protocol = httpResponse.version() == HttpClient.Version.HTTP_2 ? "HTTP/2" : "HTTP/1.1";
+        String contentType = httpResponse.headers().firstValue("Content-Type").orElse("application/json");
+
+        Response response = new ResponseBuilder()
+                .setStatusCode(httpResponse.statusCode())
+                .setStatusLine(protocol + " " + httpResponse.statusCode())
+                .setHeaders(new Headers(headers))
+                .setContentType(contentType)
+                .setBody(body)
+                .build();
+        PayloadMetrics.rememberWireBytes(response, httpResponse.body().length);
+        return response;
+    }
+
+    /**
+     * Розпаковує тіло за Content-Encoding (gzip / deflate, інше - як є)
+     */
+    private static byte[] decode(byte[] body, String encoding) {
+        if (body.length == 0) {
+            return body;
+        }
+        try {
+            return switch (encoding.trim().toLowerCase()) {
+                case "gzip", "x-gzip" -> new GZIPInputStream(new ByteArrayInputStream(body)).readAllBytes();
+                case "deflate" -> inflate(body);
+                default -> body;
+            };
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to decode " + encoding + " response body", e);
+        }
+    }
+
+    private static byte[] inflate(byte[] body) throws IOException {
+        try {
+            return new InflaterInputStream(new ByteArrayInputStream(body)).readAllBytes();
+        } catch (ZipException e) {
+            // Деякі сервери шлють "deflate" без zlib-заголовка
+            return new InflaterInputStream(new ByteArrayInputStream(body), new Inflater(true)).readAllBytes();
+        }
+    }
+}
@@ -4,6 +4,9 @@ import com.erp.utils.config.ConfigProvider;
 import io.qameta.allure.restassured.AllureRestAssured;
 import io.restassured.builder.RequestSpecBuilder;
 import io.restassured.builder.ResponseSpecBuilder;
+import io.restassured.config.DecoderConfig;
+import io.restassured.config.DecoderConfig.ContentDecoder;
+import io.restassured.config.RestAssuredConfig;
 import io.restassured.filter.log.LogDetail;
 import io.restassured.http.ContentType;
 import io.restassured.response.Response;
@@ -36,8 +39,22 @@ public abstract class BaseClient {
                 .setBaseUri(ConfigProvider.getBaseUrl())
                 .setContentType(ContentType.JSON)
                 .setAccept(ContentType.JSON)
-                .addFilter(new AllureRestAssured())
-                .log(LogDetail.ALL);
+                .setConfig(RestAssuredConfig.config()
+                        .httpClient(PooledConnectionManager.shared().httpClientConfig())
+                        .decoderConfig(decoderConfig()));
+
+        // 📼 ON_FAILURE: тільки буфер в пам'яті, лог та Allure - при падінні
+        if (ExchangeCaptureFilter.isEnabled()) {
+            builder.addFilter(new ExchangeCaptureFilter(ConfigProvider.getConfig().logCaptureBufferSize()));
+        } else {
+            builder.addFilter(new AllureRestAssured())
+                    .log(LogDetail.ALL);
+        }
+
+        // 📦 HAR: обмін ставиться в чергу фонового writer'а
+        if (HarWriter.isEnabled()) {
+            builder.addFilter(new HarCaptureFilter(HarWriter.shared()));
+        }
 
         // ✅ Додаємо токен якщо він є
         if (authToken != null && !authToken.isEmpty()) {
@@ -47,13 +64,24 @@ public abstract class BaseClient {
         return builder.build();
     }
 
+    /**
+     * gzip/deflate: Accept-Encoding + прозора декомпресія (http.compression.enabled)
+     */
+    private static DecoderConfig decoderConfig() {
+        return ConfigProvider.getConfig().httpCompressionEnabled()
+                ? DecoderConfig.decoderConfig().contentDecoders(ContentDecoder.GZIP, ContentDecoder.DEFLATE)
+                : DecoderConfig.decoderConfig().noContentDecoders();
+    }
+
     /**
      * Create default response specification
      */
     private ResponseSpecification createResponseSpec() {
-        return new ResponseSpecBuilder()
-                .log(LogDetail.ALL)
-                .build();
+        ResponseSpecBuilder builder = new ResponseSpecBuilder();
+        if (!ExchangeCaptureFilter.isEnabled()) {
+            builder.log(LogDetail.ALL);
+        }
+        return builder.build();
     }
 
     /**
@@ -106,7 +134,8 @@ public abstract class BaseClient {
     }
 
     protected Response post(String endpoint, Object body) {
-        log.info("POST request to: {} with body: {}", endpoint, body);
+        log.info("POST request to: {}", endpoint);
+        log.debug("POST body: {}", body);
         return given()
                 .spec(requestSpec)
                 .body(body)
@@ -131,7 +160,8 @@ public abstract class BaseClient {
     }
 
     protected Response put(String endpoint, Object body) {
-        log.info("PUT request to: {} with body: {}", endpoint, body);
+        log.info("PUT request to: {}", endpoint);
+        log.debug("PUT body: {}", body);
         return given()
                 .spec(requestSpec)
                 .body(body)
@@ -144,7 +174,8 @@ public abstract class BaseClient {
     }
 
     protected Response put(String endpoint, Map<String, ?> pathParams, Object body) {
-        log.info("PUT request to: {} with params: {} and body: {}", endpoint, pathParams, body);
+        log.info("PUT request to: {} with params: {}", endpoint, pathParams);
+        log.debug("PUT body: {}", body);
         return given()
                 .spec(requestSpec)
                 .pathParams(pathParams)
@@ -158,7 +189,8 @@ public abstract class BaseClient {
     }
 
     protected Response patch(String endpoint, Object body) {
-        log.info("PATCH request to: {} with body: {}", endpoint, body);
+        log.info("PATCH request to: {}", endpoint);
+        log.debug("PATCH body: {}", body);
         return given()
                 .spec(requestSpec)
                 .body(body)
@@ -0,0 +1,351 @@
+package com.erp.api.clients;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.node.MissingNode;
+import io.restassured.response.Response;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.WeakHashMap;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * 📦 Response body read once and shared by every consumer
+ * <p>
+ * RestAssured materializes the body on every asString() / jsonPath() call,
+ * and JsonPath re-parses the whole document on every get().
+ * BufferedResponse keeps:
+ * - a reference to RestAssured's own body buffer (never copied while buffering)
+ * - the decoded string (lazy, once)
+ * - the Jackson tree (lazy, once)
+ * <p>
+ * Usage:
+ * <pre>
+ * BufferedResponse body = BufferedResponse.of(response);   // same instance for the same Response
+ * JsonNode tree = body.json();
+ * List&lt;ResourceResponse&gt; list = body.asList(ResourceResponse.class);
+ * Optional&lt;ResourceResponse&gt; first = body.stream(ResourceResponse.class).findFirst();  // no tree, no list
+ * </pre>
+ */
+public final class BufferedResponse {
+
+    static final ObjectMapper JSON = new ObjectMapper().findAndRegisterModules();
+
+    // Response має identity equals - ключі звільняються разом з Response.
+    // Значення не тримає посилання на Response, інакше ключ ніколи не звільнився б.
+    private static final Map<Response, BufferedResponse> BUFFERS =
+            Collections.synchronizedMap(new WeakHashMap<>());
+
+    // Власні смуги блокувань (не монітор чужої Response): тіло однієї відповіді не читається двічі,
+    // а повільне читання блокує лише відповіді своєї смуги, не всю мапу
+    private static final Object[] LOCKS = new Object[64];
+
+    static {
+        for (int i = 0; i < LOCKS.length; i++) {
+            LOCKS[i] = new Object();
+        }
+    }
+
+    private final byte[] bytes;
+    private final int statusCode;
+    private final String contentType;
+
+    private volatile String text;
+    private volatile JsonNode tree;
+    private volatile boolean notJson;
+
+    private BufferedResponse(byte[] bytes, int statusCode, String contentType) {
+        this.bytes = bytes != null ? bytes : new byte[0];
+        this.statusCode = statusCode;
+        this.contentType = contentType;
+    }
+
+    /**
+     * Повертає (або створює) буфер для відповіді
+     */
+    public static BufferedResponse of(Response response) {
+        BufferedResponse buffer = BUFFERS.get(response);
+        if (buffer != null) {
+            return buffer;
+        }
+        synchronized (LOCKS[Math.floorMod(System.identityHashCode(response), LOCKS.length)]) {
+            buffer = BUFFERS.get(response);
+            if (buffer == null) {
+                // RestAssured віддає свій внутрішній масив без копії - тіло в пам'яті лишається в одному екземплярі
+                buffer = new BufferedResponse(response.asByteArray(), response.getStatusCode(), response.getContentType());
+                BufferedResponse existing = BUFFERS.putIfAbsent(response, buffer);
+                if (existing != null) {
+                    buffer = existing;
+                }
+            }
+            return buffer;
+        }
+    }
+
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public int size() {
+        return bytes.length;
+    }
+
+    public boolean isEmpty() {
+        return bytes.length == 0;
+    }
+
+    /**
+     * Копія тіла відповіді (внутрішній буфер не віддається назовні)
+     */
+    public byte[] asByteArray() {
+        return bytes.clone();
+    }
+
+    /**
+     * Тіло без копіювання - тільки для читання всередині пакета (ExchangeRecorder)
+     */
+    byte[] buffer() {
+        return bytes;
+    }
+
+    public String asString() {
+        String result = text;
+        if (result == null) {
+            result = new String(bytes, StandardCharsets.UTF_8);
+            text = result;
+        }
+        return result;
+    }
+
+    /**
+     * JSON дерево відповіді (парситься один раз). Порожнє тіло - MissingNode.
+     *
+     * @throws UncheckedIOException якщо тіло не є JSON
+     */
+    public JsonNode json() {
+        JsonNode result = tree;
+        if (result == null) {
+            if (notJson) {
+                throw new UncheckedIOException(new IOException("Response body is not valid JSON"));
+            }
+            if (isEmpty()) {
+                result = MissingNode.getInstance();
+            } else {
+                try {
+                    // BigDecimal - так само, як парсить json-schema-validator
+                    result = JSON.reader()
+                            .with(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS)
+                            .readTree(bytes);
+                } catch (IOException e) {
+                    notJson = true;
+                    throw new UncheckedIOException("Response body is not valid JSON", e);
+                }
+            }
+            tree = result;
+        }
+        return result;
+    }
+
+    public boolean isJson() {
+        try {
+            return !json().isMissingNode();
+        } catch (UncheckedIOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Вузол за простим GPath шляхом: "", "$", "name", "content[0].id", "[2].name".
+     * Відсутній вузол - MissingNode. Вирази GPath (items.id по масиву, find, size()) не підтримуються.
+     */
+    public JsonNode node(String path) {
+        return path(json(), path);
+    }
+
+    /**
+     * Той самий простий шлях відносно довільного вузла (наприклад, елемента масиву)
+     */
+    public static JsonNode path(JsonNode from, String path) {
+        JsonNode current = from;
+        if (path == null || path.isEmpty() || "$".equals(path)) {
+            return current;
+        }
+
+        for (String segment : path.split("\\.")) {
+            int bracket = segment.indexOf('[');
+            String field = bracket >= 0 ? segment.substring(0, bracket) : segment;
+            if (!field.isEmpty()) {
+                current = current.path(field);
+            }
+            while (bracket >= 0) {
+                int close = segment.indexOf(']', bracket);
+                current = current.path(Integer.parseInt(segment.substring(bracket + 1, close)));
+                bracket = segment.indexOf('[', close);
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Форматований JSON (або сирий текст, якщо тіло не JSON)
+     */
+    public String prettyJson() {
+        if (!isJson()) {
+            return asString();
+        }
+        try {
+            return JSON.writerWithDefaultPrettyPrinter().writeValueAsString(json());
+        } catch (IOException e) {
+            return asString();
+        }
+    }
+
+    public <T> T as(Class<T> type) {
+        return readAs(JSON.constructType(type));
+    }
+
+    public <T> T as(Type type) {
+        return readAs(JSON.constructType(type));
+    }
+
+    public <T> List<T> asList(Class<T> elementType) {
+        return readAs(JSON.getTypeFactory().constructCollectionType(List.class, elementType));
+    }
+
+    /**
+     * Елементи JSON масиву один за одним (Jackson streaming parser, без дерева та без списку).
+     * Читання зупиняється разом зі stream (findFirst, limit, anyMatch). Порожнє тіло - порожній stream.
+     * Парсер закривається в кінці масиву або на {@code close()} stream, якщо його зупинили раніше.
+     */
+    public <T> Stream<T> stream(Class<T> elementType) {
+        JsonParser parser = openArray();
+        if (parser == null) {
+            return Stream.empty();
+        }
+        Iterator<T> elements = new ArrayElementIterator<>(parser, JSON.readerFor(elementType));
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(elements, Spliterator.ORDERED), false)
+                .onClose(() -> closeQuietly(parser));
+    }
+
+    /**
+     * Кількість елементів JSON масиву без десеріалізації (елементи пропускаються парсером)
+     */
+    public long count() {
+        JsonParser parser = openArray();
+        if (parser == null) {
+            return 0;
+        }
+        try (parser) {
+            long count = 0;
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                parser.skipChildren();
+                count++;
+            }
+            return count;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read JSON array", e);
+        }
+    }
+
+    /**
+     * Парсер, що стоїть на початку масиву; null - порожнє тіло
+     */
+    private JsonParser openArray() {
+        if (isEmpty()) {
+            return null;
+        }
+        try {
+            JsonParser parser = JSON.createParser(bytes);
+            JsonToken first = parser.nextToken();
+            if (first == null || first == JsonToken.VALUE_NULL) {
+                parser.close();
+                return null;
+            }
+            if (first != JsonToken.START_ARRAY) {
+                parser.close();
+                throw new IllegalStateException("Expected JSON array in response body, got " + first);
+            }
+            return parser;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Response body is not valid JSON", e);
+        }
+    }
+
+    private static void closeQuietly(JsonParser parser) {
+        try {
+            parser.close();
+        } catch (IOException e) {
+            // Парсер над масивом у пам'яті - закривати нічого, крім буферів Jackson
+        }
+    }
+
+    private <T> T readAs(JavaType type) {
+        try {
+            return JSON.readerFor(type).readValue(json());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to deserialize response to " + type, e);
+        }
+    }
+
+    // ==================== Inner Classes ====================
+
+    private static class ArrayElementIterator<T> implements Iterator<T> {
+        private final JsonParser parser;
+        private final ObjectReader reader;
+        private JsonToken current;
+
+        ArrayElementIterator(JsonParser parser, ObjectReader reader) {
+            this.parser = parser;
+            this.reader = reader;
+        }
+
+        @Override
+        public boolean hasNext() {
+            try {
+                if (current == null && !parser.isClosed()) {
+                    current = parser.nextToken();
+                    if (current == JsonToken.END_ARRAY || current == null) {
+                        parser.close();
+                    }
+                }
+                return !parser.isClosed();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to read JSON array", e);
+            }
+        }
+
+        @Override
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            current = null;
+            try {
+                // Парсер стоїть на початку елемента - reader читає рівно один елемент
+                return reader.readValue(parser);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to deserialize JSON array element", e);
+            }
+        }
+    }
+}
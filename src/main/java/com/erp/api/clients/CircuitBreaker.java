@@ -0,0 +1,222 @@
+package com.erp.api.clients;
+
+import com.erp.utils.config.ConfigProvider;
+import com.erp.utils.config.TestConfig;
+import com.erp.utils.metrics.ClientMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.testng.SkipException;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.URI;
+import java.util.function.Supplier;
+
+/**
+ * 🔌 Circuit breaker for an unreachable backend / Keycloak (api.circuit.enabled=true)
+ * <p>
+ * - CLOSED: requests pass; api.circuit.failure.threshold consecutive connection failures or timeouts → OPEN
+ * - OPEN: every request is skipped at once (TestNG SkipException with the last failure as reason)
+ * - after api.circuit.open.seconds → HALF_OPEN: the next request is a probe, other requests are skipped;
+ *   probe reached the server → CLOSED, probe failed → OPEN again
+ * <p>
+ * Any HTTP response (even 5xx) counts as "reachable" - the breaker only reacts to connectivity.
+ * {@link #checkReachable} is the health gate used in BaseTest.globalSetup: a short TCP connect that opens the
+ * breaker before the first test instead of after N timeouts.
+ * <p>
+ * Metrics in ClientMetrics: api.circuit.NAME.opened / skipped, gauge api.circuit.NAME.state (0 closed, 1 open, 2 half-open)
+ */
+@Slf4j
+public class CircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private static volatile CircuitBreaker backendInstance;
+    private static volatile CircuitBreaker authInstance;
+
+    private final String name;
+    private final boolean enabled;
+    private final int failureThreshold;
+    private final long openMillis;
+    private final int probeTimeoutMillis;
+
+    // Стан - тільки під synchronized(this)
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openUntil;
+    private boolean probeInFlight;
+    private String lastFailure;
+
+    public CircuitBreaker(String name, boolean enabled, int failureThreshold, long openMillis, int probeTimeoutMillis) {
+        this.name = name;
+        this.enabled = enabled;
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.openMillis = openMillis;
+        this.probeTimeoutMillis = probeTimeoutMillis;
+    }
+
+    /**
+     * Breaker для запитів до бекенду (ApiExecutor)
+     */
+    public static CircuitBreaker backend() {
+        if (backendInstance == null) {
+            synchronized (CircuitBreaker.class) {
+                if (backendInstance == null) {
+                    backendInstance = create("backend");
+                }
+            }
+        }
+        return backendInstance;
+    }
+
+    /**
+     * Breaker для логіну (Keycloak token / browser flow в AuthService)
+     */
+    public static CircuitBreaker auth() {
+        if (authInstance == null) {
+            synchronized (CircuitBreaker.class) {
+                if (authInstance == null) {
+                    authInstance = create("auth");
+                }
+            }
+        }
+        return authInstance;
+    }
+
+    private static CircuitBreaker create(String name) {
+        TestConfig config = ConfigProvider.getConfig();
+        CircuitBreaker breaker = new CircuitBreaker(name,
+                config.apiCircuitEnabled(),
+                config.apiCircuitFailureThreshold(),
+                config.apiCircuitOpenSeconds() * 1000L,
+                config.apiCircuitProbeTimeoutMs());
+        ClientMetrics.gauge("api.circuit." + name + ".state", () -> breaker.getState().ordinal());
+        return breaker;
+    }
+
+    public <T> T call(Supplier<T> action) {
+        acquirePermission();
+        boolean reported = false;
+        try {
+            T result = action.get();
+            reported = true;
+            onSuccess();
+            return result;
+        } catch (Exception e) {
+            // Exception, а не RuntimeException: RestAssured кидає ConnectException без декларації
+            reported = true;
+            onFailure(e);
+            throw e;
+        } finally {
+            // Error (AssertionError, OOM...) нічого не каже про доступність - пробний слот не повинен зависнути
+            if (!reported) {
+                releasePermission();
+            }
+        }
+    }
+
+    /**
+     * Пропускає запит або кидає SkipException, якщо breaker відкритий
+     */
+    public synchronized void acquirePermission() {
+        if (!enabled || state == State.CLOSED) {
+            return;
+        }
+        if (state == State.OPEN && System.currentTimeMillis() >= openUntil) {
+            state = State.HALF_OPEN;
+            log.info("🔌 {} circuit HALF_OPEN - probing with the next request", name);
+        }
+        if (state == State.HALF_OPEN && !probeInFlight) {
+            probeInFlight = true;
+            return;
+        }
+        ClientMetrics.increment("api.circuit." + name + ".skipped");
+        throw new SkipException(String.format("🔌 %s circuit is %s after %d consecutive connection failure(s), last: %s",
+                name, state, consecutiveFailures, lastFailure));
+    }
+
+    /**
+     * Пропущений запит завершився без результату (виняток до відправки, Error):
+     * пробний слот HALF_OPEN звільняється для наступного запиту
+     */
+    public synchronized void releasePermission() {
+        probeInFlight = false;
+    }
+
+    public synchronized void onSuccess() {
+        if (state != State.CLOSED) {
+            log.info("🔌 {} circuit CLOSED - server is reachable again", name);
+        }
+        state = State.CLOSED;
+        consecutiveFailures = 0;
+        probeInFlight = false;
+    }
+
+    public synchronized void onFailure(Throwable error) {
+        if (!isConnectivityFailure(error)) {
+            // Сервер відповів або помилка не мережева - про доступність нічого не каже
+            probeInFlight = false;
+            return;
+        }
+        consecutiveFailures++;
+        lastFailure = describe(error);
+        if (state == State.HALF_OPEN || consecutiveFailures >= failureThreshold) {
+            open();
+        }
+    }
+
+    /**
+     * Health gate: TCP connect до хоста url; недоступний → breaker відкривається одразу
+     */
+    public boolean checkReachable(String url) {
+        if (!enabled) {
+            return true;
+        }
+        URI uri = URI.create(url);
+        int port = uri.getPort() > 0 ? uri.getPort() : ("https".equalsIgnoreCase(uri.getScheme()) ? 443 : 80);
+        try (Socket socket = new Socket()) {
+            socket.connect(new InetSocketAddress(uri.getHost(), port), probeTimeoutMillis);
+            log.info("🔌 {} is reachable: {}:{}", name, uri.getHost(), port);
+            return true;
+        } catch (IOException | IllegalArgumentException e) {
+            synchronized (this) {
+                consecutiveFailures = Math.max(consecutiveFailures, failureThreshold);
+                lastFailure = String.format("health check %s:%d - %s", uri.getHost(), port, describe(e));
+                open();
+            }
+            return false;
+        }
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    private void open() {
+        if (state != State.OPEN) {
+            ClientMetrics.increment("api.circuit." + name + ".opened");
+            log.error("🔌 {} circuit OPEN for {} s after {} consecutive connection failure(s), last: {}",
+                    name, openMillis / 1000, consecutiveFailures, lastFailure);
+        }
+        state = State.OPEN;
+        openUntil = System.currentTimeMillis() + openMillis;
+        probeInFlight = false;
+    }
+
+    private static boolean isConnectivityFailure(Throwable error) {
+        for (Throwable t = error; t != null; t = t.getCause()) {
+            if (t instanceof IOException || t instanceof ApiTimeoutException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String describe(Throwable error) {
+        Throwable root = error;
+        while (root.getCause() != null && !(root instanceof IOException)) {
+            root = root.getCause();
+        }
+        return root.getClass().getSimpleName() + ": " + root.getMessage();
+    }
+}
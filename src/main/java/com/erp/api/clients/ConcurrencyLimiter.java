@@ -0,0 +1,90 @@
+package com.erp.api.clients;
+
+import com.erp.api.endpoints.ApiEndpointDefinition;
+import com.erp.utils.config.ConfigProvider;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.function.Supplier;
+
+/**
+ * 🚦 Suite-wide cap on in-flight API requests
+ * <p>
+ * Two levels of permits:
+ * - global: api.max.concurrent.requests
+ * - per endpoint: EndpointPolicy.maxConcurrency or api.max.concurrent.requests.per.endpoint
+ * <p>
+ * Keeps thousands of virtual-thread test cases from flooding the backend.
+ */
+@Slf4j
+public class ConcurrencyLimiter {
+
+    private static volatile ConcurrencyLimiter sharedInstance;
+
+    private final Semaphore globalPermits;
+    private final int defaultPerEndpoint;
+    private final Map<ApiEndpointDefinition, Semaphore> endpointPermits = new ConcurrentHashMap<>();
+
+    public ConcurrencyLimiter(int globalLimit, int defaultPerEndpoint) {
+        this.globalPermits = new Semaphore(globalLimit);
+        this.defaultPerEndpoint = defaultPerEndpoint;
+    }
+
+    public static ConcurrencyLimiter shared() {
+        if (sharedInstance == null) {
+            synchronized (ConcurrencyLimiter.class) {
+                if (sharedInstance == null) {
+                    sharedInstance = new ConcurrencyLimiter(
+                            ConfigProvider.getConfig().maxConcurrentRequests(),
+                            ConfigProvider.getConfig().maxConcurrentRequestsPerEndpoint());
+                }
+            }
+        }
+        return sharedInstance;
+    }
+
+    /**
+     * Виконує дію, утримуючи глобальний та endpoint-дозвіл
+     */
+    public <T> T call(ApiEndpointDefinition endpoint, Supplier<T> action) {
+        acquire(endpoint);
+        try {
+            return action.get();
+        } finally {
+            release(endpoint);
+        }
+    }
+
+    public void acquire(ApiEndpointDefinition endpoint) {
+        Semaphore endpointSemaphore = permitsFor(endpoint);
+        try {
+            endpointSemaphore.acquire();
+            try {
+                globalPermits.acquire();
+            } catch (InterruptedException e) {
+                endpointSemaphore.release();
+                throw e;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a request slot: " + endpoint.name(), e);
+        }
+    }
+
+    public void release(ApiEndpointDefinition endpoint) {
+        globalPermits.release();
+        permitsFor(endpoint).release();
+    }
+
+    private Semaphore permitsFor(ApiEndpointDefinition endpoint) {
+        return endpointPermits.computeIfAbsent(endpoint, e -> {
+            int limit = e.getPolicy().getMaxConcurrency() > 0
+                    ? e.getPolicy().getMaxConcurrency()
+                    : defaultPerEndpoint;
+            log.debug("🚦 Concurrency cap for {}: {}", e.name(), limit);
+            return new Semaphore(limit);
+        });
+    }
+}
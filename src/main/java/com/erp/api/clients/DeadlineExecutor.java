@@ -0,0 +1,286 @@
+package com.erp.api.clients;
+
+import com.erp.api.endpoints.ApiEndpointDefinition;
+import com.erp.utils.config.ConfigProvider;
+import com.erp.utils.metrics.ClientMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.http.HttpConnection;
+
+import java.io.IOException;
+import java.net.http.HttpTimeoutException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * ⏱️ Per-request deadline with real cancellation
+ * <p>
+ * - deadline: EndpointPolicy.timeoutMillis or api.timeout (seconds); covers retries and hedges
+ * - on expiry every connection leased under the deadline is shut down (blocked socket reads fail at once)
+ *   and the calling thread is interrupted (wakes it from limiter / backoff / hedge waits);
+ *   the interrupt flag is cleared again before execute() returns or throws
+ * - the caller always gets {@link ApiTimeoutException}, whatever the transport threw
+ * <p>
+ * The deadline is a plain thread-local: threads started meanwhile (session refresh, HAR writer, pools)
+ * never inherit it. Hedged requests get it explicitly through {@link #current()} / {@link #openScope(Scope)}.
+ * Counters in ClientMetrics: api.timeout / api.timeout.ENDPOINT
+ */
+@Slf4j
+public class DeadlineExecutor {
+
+    private static final ThreadLocal<Deadline> CURRENT = new ThreadLocal<>();
+
+    private static volatile DeadlineExecutor sharedInstance;
+
+    private final long defaultTimeoutMillis;
+    private final ScheduledThreadPoolExecutor timer;
+
+    public DeadlineExecutor(long defaultTimeoutMillis) {
+        this.defaultTimeoutMillis = defaultTimeoutMillis;
+        this.timer = new ScheduledThreadPoolExecutor(1, r -> {
+            Thread thread = new Thread(r, "api-deadline-timer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.timer.setRemoveOnCancelPolicy(true);
+    }
+
+    public static DeadlineExecutor shared() {
+        if (sharedInstance == null) {
+            synchronized (DeadlineExecutor.class) {
+                if (sharedInstance == null) {
+                    sharedInstance = new DeadlineExecutor(TimeUnit.SECONDS.toMillis(ConfigProvider.getTimeout()));
+                }
+            }
+        }
+        return sharedInstance;
+    }
+
+    /**
+     * Таймаут endpoint'а в мс (0 = без дедлайну)
+     */
+    public long timeoutFor(ApiEndpointDefinition endpoint) {
+        long override = endpoint.getPolicy().getTimeoutMillis();
+        return override > 0 ? override : defaultTimeoutMillis;
+    }
+
+    public <T> T execute(ApiEndpointDefinition endpoint, Supplier<T> call) {
+        long timeoutMillis = timeoutFor(endpoint);
+        // Вкладений виклик (наприклад, всередині дубля) живе під зовнішнім дедлайном;
+        // завершений зовнішній дедлайн (область вже закрита) ігнорується
+        Deadline outer = CURRENT.get();
+        if (timeoutMillis <= 0 || (outer != null && outer.isRunning())) {
+            return call.get();
+        }
+
+        Deadline deadline = new Deadline(Thread.currentThread());
+        ScheduledFuture<?> expiry = timer.schedule(deadline::expire, timeoutMillis, TimeUnit.MILLISECONDS);
+        CURRENT.set(deadline);
+        try {
+            T result = call.get();
+            if (deadline.finish()) {
+                return result;
+            }
+            throw timeout(endpoint, timeoutMillis, null);
+        } catch (ApiTimeoutException e) {
+            throw e;
+        } catch (Exception e) {
+            // Exception, а не RuntimeException: RestAssured кидає IOException (SocketException) без декларації
+            if (deadline.finish()) {
+                throw e;
+            }
+            throw timeout(endpoint, timeoutMillis, e);
+        } finally {
+            // Після finish() таймер вже не може перервати потік; його переривання знімається
+            // на будь-якому шляху виходу (також для Error), щоб не дістатись наступному тесту
+            if (!deadline.finish()) {
+                Thread.interrupted();
+            }
+            CURRENT.remove();
+            expiry.cancel(false);
+        }
+    }
+
+    /**
+     * Переводить помилку async-запиту (HttpTimeoutException) в ApiTimeoutException
+     */
+    public RuntimeException translateAsync(ApiEndpointDefinition endpoint, Throwable error) {
+        for (Throwable t = error; t != null; t = t.getCause()) {
+            if (t instanceof HttpTimeoutException) {
+                return timeout(endpoint, timeoutFor(endpoint), t);
+            }
+        }
+        return error instanceof RuntimeException runtimeException ? runtimeException : new IllegalStateException(error);
+    }
+
+    private ApiTimeoutException timeout(ApiEndpointDefinition endpoint, long timeoutMillis, Throwable cause) {
+        ClientMetrics.increment("api.timeout");
+        ClientMetrics.increment("api.timeout." + endpoint.name());
+        ApiTimeoutException exception = new ApiTimeoutException(endpoint, timeoutMillis, cause);
+        log.warn("⏱️ {}", exception.getMessage());
+        return exception;
+    }
+
+    // ==================== Connection tracking (PooledConnectionManager) ====================
+
+    static void track(HttpConnection connection) {
+        Deadline deadline = CURRENT.get();
+        if (deadline != null) {
+            deadline.track(connection);
+        }
+    }
+
+    static void untrack(HttpConnection connection) {
+        Deadline deadline = CURRENT.get();
+        if (deadline != null) {
+            deadline.untrack(connection);
+        }
+    }
+
+    // ==================== Cancellation scopes (HedgedRequestExecutor) ====================
+
+    /**
+     * Дедлайн поточного потоку - для передачі в інший потік через {@link #openScope(Scope)} (null - немає)
+     */
+    static Scope current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Відкриває в поточному потоці область скасування всередині дедлайну parent (взятого в іншому потоці):
+     * з'єднання, взяті в ній, належать і області, і дедлайну; {@link Scope#cancel()} обриває лише їх
+     */
+    static Scope openScope(Scope parent) {
+        Deadline scope = new Deadline(Thread.currentThread(), (Deadline) parent, CURRENT.get());
+        CURRENT.set(scope);
+        return scope;
+    }
+
+    /**
+     * Поточна область скасована (програний дубль) - її результат нікому не потрібен
+     */
+    static boolean isCancelled() {
+        Deadline deadline = CURRENT.get();
+        return deadline != null && deadline.isCancelled();
+    }
+
+    interface Scope extends AutoCloseable {
+
+        /**
+         * Обриває з'єднання області та перериває її потік (якщо область ще відкрита)
+         */
+        void cancel();
+
+        @Override
+        void close();
+    }
+
+    // ==================== Inner Classes ====================
+
+    /**
+     * Стан одного дедлайну: RUNNING → DONE (встигли) або EXPIRED (таймер спрацював першим / область скасована)
+     */
+    private static class Deadline implements Scope {
+        private final Thread owner;
+        // Зовнішній дедлайн області скасування (null - звичайний дедлайн)
+        private final Deadline parent;
+        // Що лежало в CURRENT потоку-власника до відкриття області
+        private final Deadline previous;
+        private final Set<HttpConnection> connections = ConcurrentHashMap.newKeySet();
+        private boolean running = true;
+        private boolean expired;
+        private boolean cancelled;
+
+        Deadline(Thread owner) {
+            this(owner, null, null);
+        }
+
+        Deadline(Thread owner, Deadline parent, Deadline previous) {
+            this.owner = owner;
+            this.parent = parent;
+            this.previous = previous;
+        }
+
+        @Override
+        public synchronized void cancel() {
+            if (running) {
+                cancelled = true;
+                expire();
+            }
+        }
+
+        @Override
+        public void close() {
+            if (!finish()) {
+                Thread.interrupted();
+            }
+            if (previous != null) {
+                CURRENT.set(previous);
+            } else {
+                CURRENT.remove();
+            }
+        }
+
+        synchronized boolean isCancelled() {
+            return cancelled;
+        }
+
+        synchronized void expire() {
+            if (!running) {
+                return;
+            }
+            running = false;
+            expired = true;
+            connections.forEach(Deadline::abort);
+            owner.interrupt();
+        }
+
+        /**
+         * З'єднання, взяте вже після дедлайну (переривання могло загубитись), обривається одразу
+         */
+        void track(HttpConnection connection) {
+            synchronized (this) {
+                if (expired) {
+                    abort(connection);
+                    return;
+                }
+                if (running) {
+                    connections.add(connection);
+                }
+            }
+            if (parent != null) {
+                parent.track(connection);
+            }
+        }
+
+        void untrack(HttpConnection connection) {
+            connections.remove(connection);
+            if (parent != null) {
+                parent.untrack(connection);
+            }
+        }
+
+        private static void abort(HttpConnection connection) {
+            try {
+                connection.shutdown();
+            } catch (IOException e) {
+                log.debug("⏱️ Failed to abort connection: {}", e.getMessage());
+            }
+        }
+
+        synchronized boolean isRunning() {
+            return running;
+        }
+
+        /**
+         * @return true, якщо запит завершився до дедлайну
+         */
+        synchronized boolean finish() {
+            running = false;
+            return !expired;
+        }
+    }
+}
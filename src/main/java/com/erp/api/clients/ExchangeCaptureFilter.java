@@ -0,0 +1,163 @@
+package com.erp.api.clients;
+
+import com.erp.enums.LogCaptureMode;
+import com.erp.utils.config.ConfigProvider;
+import io.qameta.allure.Allure;
+import io.restassured.filter.Filter;
+import io.restassured.filter.FilterContext;
+import io.restassured.http.Cookies;
+import io.restassured.http.Headers;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+/**
+ * 📼 Failure-only capture of HTTP exchanges (logging.capture.mode=ON_FAILURE)
+ * <p>
+ * Replaces AllureRestAssured + LogDetail.ALL on passing calls:
+ * - the filter only keeps references to the last N exchanges of the current thread (logging.capture.buffer.size)
+ * - nothing is formatted until {@link #flush(String)} is called
+ * - flush writes the exchanges to the log and to Allure, then clears the buffer
+ * <p>
+ * Flushed by ExchangeCaptureListener on test/configuration failure and by fixtures on unexpected status.
+ */
+@Slf4j
+public class ExchangeCaptureFilter implements Filter {
+
+    private static final ThreadLocal<Deque<Exchange>> BUFFER = ThreadLocal.withInitial(ArrayDeque::new);
+
+    private final int capacity;
+
+    public ExchangeCaptureFilter(int capacity) {
+        this.capacity = Math.max(1, capacity);
+    }
+
+    public static boolean isEnabled() {
+        return ConfigProvider.getConfig().logCaptureMode() == LogCaptureMode.ON_FAILURE;
+    }
+
+    @Override
+    public Response filter(FilterableRequestSpecification requestSpec,
+                           FilterableResponseSpecification responseSpec,
+                           FilterContext ctx) {
+        Response response = ctx.next(requestSpec, responseSpec);
+
+        Exchange exchange = new Exchange(
+                requestSpec.getMethod(),
+                requestSpec.getURI(),
+                requestSpec.getHeaders(),
+                requestSpec.getCookies(),
+                requestSpec.getBody(),
+                response
+        );
+        Deque<Exchange> buffer = BUFFER.get();
+        // Буфер може бути спільним з потоками scatter-gather (див. sharingBuffer)
+        synchronized (buffer) {
+            if (buffer.size() >= capacity) {
+                buffer.removeFirst();
+            }
+            buffer.addLast(exchange);
+        }
+        return response;
+    }
+
+    /**
+     * Обгортає задачу іншого потоку так, що її обміни потрапляють в буфер поточного (тестового) потоку
+     */
+    public static <T> Callable<T> sharingBuffer(Callable<T> task) {
+        Deque<Exchange> owner = BUFFER.get();
+        return () -> {
+            BUFFER.set(owner);
+            try {
+                return task.call();
+            } finally {
+                BUFFER.remove();
+            }
+        };
+    }
+
+    /**
+     * Те саме для Runnable (тіло тесту на virtual thread, див. VirtualThreadExecutionListener)
+     */
+    public static Runnable sharingBuffer(Runnable task) {
+        Deque<Exchange> owner = BUFFER.get();
+        return () -> {
+            BUFFER.set(owner);
+            try {
+                task.run();
+            } finally {
+                BUFFER.remove();
+            }
+        };
+    }
+
+    /**
+     * Виводить збережені обміни поточного потоку в лог та Allure і очищує буфер
+     */
+    public static void flush(String reason) {
+        Deque<Exchange> buffer = BUFFER.get();
+        List<Exchange> exchanges;
+        synchronized (buffer) {
+            if (buffer.isEmpty()) {
+                return;
+            }
+            exchanges = new ArrayList<>(buffer);
+            buffer.clear();
+        }
+
+        log.warn("📼 {} - last {} HTTP exchange(s):", reason, exchanges.size());
+        for (int i = 0; i < exchanges.size(); i++) {
+            Exchange exchange = exchanges.get(i);
+            String text = exchange.format();
+            log.warn("📼 #{}\n{}", i + 1, text);
+            try {
+                Allure.addAttachment(String.format("📼 #%d %s %s → %d", i + 1,
+                                exchange.method(), exchange.uri(), exchange.response().getStatusCode()),
+                        "text/plain", text, "txt");
+            } catch (Exception e) {
+                log.debug("Could not attach exchange to Allure: {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Відкидає збережені обміни поточного потоку (тест пройшов)
+     */
+    public static void clear() {
+        Deque<Exchange> buffer = BUFFER.get();
+        synchronized (buffer) {
+            buffer.clear();
+        }
+    }
+
+    // ==================== Inner Types ====================
+
+    private record Exchange(String method, String uri, Headers requestHeaders, Cookies requestCookies,
+                            Object requestBody, Response response) {
+
+        String format() {
+            StringBuilder sb = new StringBuilder();
+            sb.append("→ ").append(method).append(" ").append(uri).append("\n");
+            requestHeaders.forEach(h -> sb.append(h.getName()).append(": ").append(h.getValue()).append("\n"));
+            requestCookies.forEach(c -> sb.append("Cookie: ").append(c.getName()).append("=").append(c.getValue()).append("\n"));
+            if (requestBody != null && !"".equals(requestBody)) {
+                sb.append("\n").append(requestBody).append("\n");
+            }
+            sb.append("\n← ").append(response.getStatusLine())
+                    .append(" (").append(response.getTime()).append(" ms)\n");
+            response.getHeaders().forEach(h -> sb.append(h.getName()).append(": ").append(h.getValue()).append("\n"));
+            String body = response.asString();
+            if (body != null && !body.isEmpty()) {
+                sb.append("\n").append(body).append("\n");
+            }
+            return sb.toString();
+        }
+    }
+}
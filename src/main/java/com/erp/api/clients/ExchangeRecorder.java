@@ -0,0 +1,332 @@
+package com.erp.api.clients;
+
+import com.erp.api.endpoints.ApiEndpointDefinition;
+import com.erp.enums.RecorderMode;
+import com.erp.enums.UserRole;
+import com.erp.utils.config.ConfigProvider;
+import com.erp.utils.config.TestConfig;
+import com.erp.utils.metrics.ClientMetrics;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.restassured.builder.ResponseBuilder;
+import io.restassured.http.Header;
+import io.restassured.http.Headers;
+import io.restassured.response.Response;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 📼 HTTP exchange recorder and offline replay (api.recorder.mode)
+ * <p>
+ * - RECORD: the response each ApiExecutor call returns (after session retry, cache or coalescing) is appended
+ *   to api.recorder.file (the file is recreated per run, forced to disk and closed in BaseTest.globalTeardown)
+ * - REPLAY: responses are served from the file - no backend, no Keycloak login
+ * <p>
+ * The file is a compact append-only binary log: magic "ERPX", version, then records
+ * <pre>
+ * int length | endpoint | role | method | path | canonical body | int status | headers | response body
+ * </pre>
+ * (strings and byte arrays are int length + bytes). In replay the file is memory-mapped,
+ * only the index (key → record offsets) lives on the heap.
+ * <p>
+ * Replay key: endpoint + role + path + canonical body (JSON with sorted keys). Repeated requests
+ * with the same key get the recorded responses in order, the last one is repeated after that.
+ * Bodies with random (Faker) data don't match exactly - then the responses recorded for
+ * endpoint + role + path are served in order.
+ * <p>
+ * Counters in ClientMetrics: api.recorder.recorded, api.recorder.replay.hit / loose / miss
+ */
+@Slf4j
+public class ExchangeRecorder {
+
+    private static final int MAGIC = 0x45525058; // "ERPX"
+    private static final int VERSION = 1;
+
+    // Тіло зберігається розпакованим - заголовки транспорту при відтворенні не мають сенсу
+    private static final Set<String> SKIPPED_HEADERS = Set.of("content-encoding", "content-length", "transfer-encoding");
+
+    private static final ObjectMapper CANONICAL = BufferedResponse.JSON.copy()
+            .configure(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS, true);
+
+    private static volatile ExchangeRecorder sharedInstance;
+
+    private final RecorderMode mode;
+    private final Path file;
+
+    // RECORD
+    private FileChannel channel;
+
+    // REPLAY
+    private MappedByteBuffer mapped;
+    private final Map<String, List<Integer>> exact = new HashMap<>();
+    private final Map<String, List<Integer>> loose = new HashMap<>();
+    private final Map<String, AtomicInteger> cursors = new ConcurrentHashMap<>();
+
+    public ExchangeRecorder(RecorderMode mode, Path file) {
+        this.mode = mode;
+        this.file = file;
+        switch (mode) {
+            case RECORD -> openForRecording();
+            case REPLAY -> loadForReplay();
+            default -> { }
+        }
+    }
+
+    public static ExchangeRecorder shared() {
+        if (sharedInstance == null) {
+            synchronized (ExchangeRecorder.class) {
+                if (sharedInstance == null) {
+                    TestConfig config = ConfigProvider.getConfig();
+                    sharedInstance = new ExchangeRecorder(config.apiRecorderMode(), Path.of(config.apiRecorderFile()));
+                }
+            }
+        }
+        return sharedInstance;
+    }
+
+    public boolean isRecording() {
+        return mode == RecorderMode.RECORD;
+    }
+
+    public boolean isReplaying() {
+        return mode == RecorderMode.REPLAY;
+    }
+
+    // ==================== Record ====================
+
+    /**
+     * Дописує обмін в журнал (тільки в режимі RECORD)
+     */
+    public void record(ApiEndpointDefinition endpoint, UserRole role, String path, Object requestBody, Response response) {
+        if (!isRecording()) {
+            return;
+        }
+        try {
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream(256 + BufferedResponse.of(response).size());
+            DataOutputStream out = new DataOutputStream(buffer);
+            out.writeInt(0); // довжина запису, заповнюється нижче
+            writeString(out, endpoint.name());
+            writeString(out, role.name());
+            writeString(out, endpoint.getHttpMethod().name());
+            writeString(out, path);
+            writeBytes(out, canonicalBody(requestBody));
+            out.writeInt(response.getStatusCode());
+
+            List<Header> headers = response.getHeaders().asList().stream()
+                    .filter(header -> !SKIPPED_HEADERS.contains(header.getName().toLowerCase()))
+                    .toList();
+            out.writeInt(headers.size());
+            for (Header header : headers) {
+                writeString(out, header.getName());
+                writeString(out, header.getValue());
+            }
+            writeBytes(out, BufferedResponse.of(response).buffer());
+
+            ByteBuffer record = ByteBuffer.wrap(buffer.toByteArray());
+            record.putInt(0, record.capacity() - Integer.BYTES);
+            synchronized (this) {
+                if (channel == null) {
+                    log.warn("📼 Exchange log {} is already closed, {} is not recorded", file, endpoint.name());
+                    return;
+                }
+                while (record.hasRemaining()) {
+                    channel.write(record);
+                }
+            }
+            ClientMetrics.increment("api.recorder.recorded");
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to record exchange " + endpoint.name() + " to " + file, e);
+        }
+    }
+
+    /**
+     * Скидає журнал на диск і закриває його (BaseTest.globalTeardown)
+     */
+    public synchronized void close() {
+        if (channel == null) {
+            return;
+        }
+        try {
+            channel.force(false);
+            channel.close();
+            log.info("📼 Exchange log closed: {}", file.toAbsolutePath());
+        } catch (IOException e) {
+            log.warn("📼 Failed to close exchange log {}: {}", file, e.getMessage());
+        }
+        channel = null;
+    }
+
+    private void openForRecording() {
+        try {
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING);
+            channel.write(ByteBuffer.allocate(2 * Integer.BYTES).putInt(MAGIC).putInt(VERSION).flip());
+            log.info("📼 Recording API exchanges to {}", file.toAbsolutePath());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open exchange log " + file, e);
+        }
+    }
+
+    // ==================== Replay ====================
+
+    /**
+     * Відповідь з журналу для запиту (тільки в режимі REPLAY)
+     */
+    public Response replay(ApiEndpointDefinition endpoint, UserRole role, String path, Object requestBody) {
+        String looseKey = endpoint.name() + " " + role + " " + path;
+        String exactKey = looseKey + " " + new String(canonicalBody(requestBody), StandardCharsets.UTF_8);
+
+        Integer offset = next(exactKey, exact);
+        if (offset != null) {
+            ClientMetrics.increment("api.recorder.replay.hit");
+        } else {
+            offset = next(looseKey, loose);
+            if (offset == null) {
+                ClientMetrics.increment("api.recorder.replay.miss");
+                throw new IllegalStateException(String.format(
+                        "📼 No recorded exchange for %s %s as %s in %s - record it again with api.recorder.mode=RECORD",
+                        endpoint.getHttpMethod(), path, role, file));
+            }
+            ClientMetrics.increment("api.recorder.replay.loose");
+            log.debug("📼 Body of {} differs from the recording, replaying by path: {}", endpoint.name(), path);
+        }
+        return readResponse(offset);
+    }
+
+    /**
+     * Наступний запис для ключа; після останнього - знову останній
+     */
+    private Integer next(String key, Map<String, List<Integer>> index) {
+        List<Integer> offsets = index.get(key);
+        if (offsets == null) {
+            return null;
+        }
+        int position = cursors.computeIfAbsent(key, k -> new AtomicInteger()).getAndIncrement();
+        return offsets.get(Math.min(position, offsets.size() - 1));
+    }
+
+    private void loadForReplay() {
+        try (FileChannel readChannel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (readChannel.size() > Integer.MAX_VALUE) {
+                throw new IllegalStateException("Exchange log is larger than 2 GB: " + file);
+            }
+            mapped = readChannel.map(FileChannel.MapMode.READ_ONLY, 0, readChannel.size());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open exchange log " + file
+                    + " - record it first with api.recorder.mode=RECORD", e);
+        }
+
+        ByteBuffer buffer = mapped.duplicate();
+        if (buffer.remaining() < 2 * Integer.BYTES || buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+            throw new IllegalStateException("Not an exchange log (or unsupported version): " + file);
+        }
+
+        int records = 0;
+        while (buffer.remaining() >= Integer.BYTES) {
+            int offset = buffer.position();
+            int length = buffer.getInt();
+            if (length > buffer.remaining()) {
+                // Запис обірвався (наприклад, прогін зупинили під час запису) - решту ігноруємо
+                log.warn("📼 Truncated record at offset {} in {}, ignoring the tail", offset, file);
+                break;
+            }
+            int end = buffer.position() + length;
+
+            String looseKey = readString(buffer) + " " + readString(buffer);
+            readString(buffer); // method - вже визначений endpoint'ом
+            looseKey += " " + readString(buffer);
+            String exactKey = looseKey + " " + new String(readBytes(buffer), StandardCharsets.UTF_8);
+
+            exact.computeIfAbsent(exactKey, k -> new ArrayList<>()).add(offset);
+            loose.computeIfAbsent(looseKey, k -> new ArrayList<>()).add(offset);
+            buffer.position(end);
+            records++;
+        }
+        log.info("📼 Replaying {} recorded API exchanges from {}", records, file.toAbsolutePath());
+    }
+
+    private Response readResponse(int offset) {
+        ByteBuffer buffer = mapped.duplicate().position(offset + Integer.BYTES);
+        for (int i = 0; i < 4; i++) {
+            readString(buffer); // endpoint, role, method, path
+        }
+        readBytes(buffer);     // body
+
+        int status = buffer.getInt();
+        int headerCount = buffer.getInt();
+        List<Header> headers = new ArrayList<>(headerCount);
+        String contentType = "application/json";
+        for (int i = 0; i < headerCount; i++) {
+            Header header = new Header(readString(buffer), readString(buffer));
+            if (header.getName().equalsIgnoreCase("Content-Type")) {
+                contentType = header.getValue();
+            }
+            headers.add(header);
+        }
+
+        return new ResponseBuilder()
+                .setStatusCode(status)
+                .setStatusLine("HTTP/1.1 " + status)
+                .setHeaders(new Headers(headers))
+                .setContentType(contentType)
+                .setBody(readBytes(buffer))
+                .build();
+    }
+
+    // ==================== Encoding ====================
+
+    /**
+     * JSON з відсортованими ключами (порядок полів DTO не впливає на ключ); не JSON - як є
+     */
+    private static byte[] canonicalBody(Object body) {
+        byte[] bytes = RequestBodySerializer.toBytes(body);
+        if (bytes.length == 0) {
+            return bytes;
+        }
+        try {
+            return CANONICAL.writeValueAsBytes(CANONICAL.readValue(bytes, Object.class));
+        } catch (IOException e) {
+            return bytes;
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        writeBytes(out, value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void writeBytes(DataOutputStream out, byte[] value) throws IOException {
+        out.writeInt(value.length);
+        out.write(value);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        return new String(readBytes(buffer), StandardCharsets.UTF_8);
+    }
+
+    private static byte[] readBytes(ByteBuffer buffer) {
+        byte[] value = new byte[buffer.getInt()];
+        buffer.get(value);
+        return value;
+    }
+}
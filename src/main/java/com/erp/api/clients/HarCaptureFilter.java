@@ -0,0 +1,137 @@
+package com.erp.api.clients;
+
+import io.restassured.filter.Filter;
+import io.restassured.filter.FilterContext;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+import org.apache.http.HttpRequestInterceptor;
+import org.apache.http.HttpResponseInterceptor;
+
+import java.time.Instant;
+
+/**
+ * 📦 RestAssured filter that hands every exchange to {@link HarWriter} (har.enabled=true)
+ * <p>
+ * Phase timings are collected on the request thread by hooks in PooledConnectionManager:
+ * - dns / connect - only when a new connection was opened (-1 for a reused keep-alive connection)
+ * - blocked - the rest of the time before the request was written (pool lease, limiters inside the filter chain)
+ * - wait - request written → response headers received
+ * - receive - response headers → body read (the body is buffered inside the filter)
+ * The request thread only takes timestamps and enqueues references; formatting happens in the writer thread.
+ */
+public class HarCaptureFilter implements Filter {
+
+    private static final ThreadLocal<Phases> CURRENT = new ThreadLocal<>();
+
+    private final HarWriter writer;
+
+    public HarCaptureFilter(HarWriter writer) {
+        this.writer = writer;
+    }
+
+    @Override
+    public Response filter(FilterableRequestSpecification requestSpec,
+                           FilterableResponseSpecification responseSpec,
+                           FilterContext ctx) {
+        Instant started = Instant.now();
+        Phases phases = new Phases(System.nanoTime());
+        CURRENT.set(phases);
+        Response response;
+        BufferedResponse body;
+        try {
+            response = ctx.next(requestSpec, responseSpec);
+            // Тіло читається тут, а не у writer'і: потік відповіді не можна читати з двох потоків.
+            // Його однаково прочитав би ApiExecutor - буфер спільний (BufferedResponse), зайвої роботи немає.
+            body = BufferedResponse.of(response);
+        } finally {
+            CURRENT.remove();
+        }
+        long end = System.nanoTime();
+
+        writer.submit(new HarWriter.Entry(
+                started,
+                requestSpec.getMethod(),
+                requestSpec.getURI(),
+                requestSpec.getHeaders(),
+                requestSpec.getContentType(),
+                requestSpec.getBody(),
+                response,
+                body,
+                phases.toTimings(end)
+        ));
+        return response;
+    }
+
+    // ==================== Hooks (PooledConnectionManager) ====================
+
+    static void onDns(long nanos) {
+        Phases phases = CURRENT.get();
+        if (phases != null) {
+            phases.dns += nanos;
+        }
+    }
+
+    static void onConnect(long nanos) {
+        Phases phases = CURRENT.get();
+        if (phases != null) {
+            phases.connect += nanos;
+        }
+    }
+
+    /**
+     * Interceptor: запит ось-ось буде записаний у з'єднання
+     */
+    static HttpRequestInterceptor requestSentMarker() {
+        return (request, context) -> {
+            Phases phases = CURRENT.get();
+            if (phases != null) {
+                phases.sent = System.nanoTime() - phases.start;
+            }
+        };
+    }
+
+    /**
+     * Interceptor: отримані заголовки відповіді (тіло ще не прочитане)
+     */
+    static HttpResponseInterceptor headersReceivedMarker() {
+        return (response, context) -> {
+            Phases phases = CURRENT.get();
+            if (phases != null) {
+                phases.headers = System.nanoTime() - phases.start;
+            }
+        };
+    }
+
+    // ==================== Inner Classes ====================
+
+    private static class Phases {
+        private final long start;
+        private long dns;
+        private long connect;
+        // Від start, -1 - позначки не було
+        private long sent = -1;
+        private long headers = -1;
+
+        Phases(long start) {
+            this.start = start;
+        }
+
+        HarWriter.Timings toTimings(long end) {
+            long total = end - start;
+            // Повтор всередині HttpClient перезаписує sent/headers - беремо останню спробу
+            long sentAt = sent >= 0 ? sent : 0;
+            long headersAt = headers >= 0 ? headers : total;
+            // dns входить у час connect (resolver викликається з connection operator)
+            long connectOnly = connect > 0 ? Math.max(0, connect - dns) : -1;
+            long blocked = Math.max(0, sentAt - Math.max(0, connect));
+            return new HarWriter.Timings(
+                    blocked,
+                    connect > 0 ? dns : -1,
+                    connectOnly,
+                    Math.max(0, headersAt - sentAt),
+                    Math.max(0, total - headersAt),
+                    total);
+        }
+    }
+}
@@ -0,0 +1,366 @@
+package com.erp.api.clients;
+
+import com.erp.utils.config.ConfigProvider;
+import com.erp.utils.config.TestConfig;
+import com.erp.utils.metrics.ClientMetrics;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import io.restassured.http.Header;
+import io.restassured.http.Headers;
+import io.restassured.response.Response;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 📦 Background HAR 1.2 writer for suite traffic (har.enabled=true)
+ * <p>
+ * - request threads only {@link #submit} an entry into a bounded queue (har.queue.capacity);
+ *   a full queue drops the entry (counter har.dropped) instead of slowing the test down
+ * - one daemon thread formats entries and streams them with Jackson's JsonGenerator into har.dir/suite-NNN.har
+ * - a file is closed and the next one started after har.max.file.mb (every file is a complete HAR document)
+ * <p>
+ * Authorization / Cookie / Set-Cookie values are masked - HAR files are shared with the backend team.
+ * Counters in ClientMetrics: har.written / har.dropped / har.files
+ */
+@Slf4j
+public class HarWriter {
+
+    private static final Set<String> MASKED_HEADERS = Set.of("authorization", "cookie", "set-cookie");
+
+    private static volatile HarWriter sharedInstance;
+
+    private final Path dir;
+    private final long maxFileBytes;
+    private final BlockingQueue<Entry> queue;
+    private final Thread worker;
+
+    private volatile boolean closed;
+
+    // Поточний файл - тільки з потоку worker
+    private int fileIndex;
+    private CountingOutputStream output;
+    private JsonGenerator json;
+
+    private HarWriter(Path dir, int queueCapacity, long maxFileBytes) {
+        this.dir = dir;
+        this.maxFileBytes = maxFileBytes;
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, queueCapacity));
+        this.worker = new Thread(this::run, "har-writer");
+        this.worker.setDaemon(true);
+    }
+
+    /**
+     * Створює writer і запускає його потік
+     */
+    public static HarWriter start(Path dir, int queueCapacity, long maxFileBytes) {
+        HarWriter writer = new HarWriter(dir, queueCapacity, maxFileBytes);
+        writer.worker.start();
+        // Прогін міг завершитись без globalTeardown - дописуємо те, що в черзі
+        Runtime.getRuntime().addShutdownHook(new Thread(writer::close, "har-writer-shutdown"));
+        log.info("📦 HAR export enabled: {}", dir.toAbsolutePath());
+        return writer;
+    }
+
+    public static boolean isEnabled() {
+        return ConfigProvider.getConfig().harEnabled();
+    }
+
+    public static HarWriter shared() {
+        if (sharedInstance == null) {
+            synchronized (HarWriter.class) {
+                if (sharedInstance == null) {
+                    TestConfig config = ConfigProvider.getConfig();
+                    sharedInstance = start(Path.of(config.harDir()), config.harQueueCapacity(),
+                            config.harMaxFileMb() * 1024L * 1024L);
+                }
+            }
+        }
+        return sharedInstance;
+    }
+
+    /**
+     * Ставить обмін в чергу (не блокує; повна черга - запис відкидається)
+     */
+    public void submit(Entry entry) {
+        if (closed || !queue.offer(entry)) {
+            ClientMetrics.increment("har.dropped");
+            return;
+        }
+        // close() міг пройти між перевіркою і offer, а worker - вже вийти: забираємо запис назад.
+        // Якщо worker встиг його взяти, remove поверне false - запис буде записаний.
+        if (closed && queue.remove(entry)) {
+            ClientMetrics.increment("har.dropped");
+        }
+    }
+
+    /**
+     * Дописує чергу та закриває поточний файл
+     */
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            worker.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void run() {
+        // Без interrupt: FileChannel закривається, якщо потік перервати під час запису
+        try {
+            while (!closed || !queue.isEmpty()) {
+                Entry entry = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (entry != null) {
+                    write(entry);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            finishFile();
+        }
+    }
+
+    private void write(Entry entry) {
+        try {
+            if (json == null) {
+                startFile();
+            }
+            writeEntry(entry);
+            json.flush();
+            ClientMetrics.increment("har.written");
+            if (output.count >= maxFileBytes) {
+                finishFile();
+            }
+        } catch (Exception e) {
+            log.warn("📦 Failed to write HAR entry {} {}: {}", entry.method(), entry.url(), e.getMessage());
+        }
+    }
+
+    private void startFile() throws IOException {
+        Files.createDirectories(dir);
+        Path file = dir.resolve(String.format("suite-%03d.har", ++fileIndex));
+        output = new CountingOutputStream(Files.newOutputStream(file));
+        json = BufferedResponse.JSON.getFactory().createGenerator(output, JsonEncoding.UTF8);
+        json.writeStartObject();
+        json.writeObjectFieldStart("log");
+        json.writeStringField("version", "1.2");
+        json.writeObjectFieldStart("creator");
+        json.writeStringField("name", "erp-auto-test");
+        json.writeStringField("version", "1.0");
+        json.writeEndObject();
+        json.writeArrayFieldStart("entries");
+        ClientMetrics.increment("har.files");
+        log.debug("📦 Writing HAR file {}", file);
+    }
+
+    private void finishFile() {
+        if (json == null) {
+            return;
+        }
+        try {
+            json.writeEndArray();
+            json.writeEndObject();
+            json.writeEndObject();
+            json.close();
+        } catch (IOException e) {
+            log.warn("📦 Failed to close HAR file: {}", e.getMessage());
+        }
+        json = null;
+        output = null;
+    }
+
+    private void writeEntry(Entry entry) throws IOException {
+        Response response = entry.response();
+        BufferedResponse body = entry.body();
+        String requestBody = requestBodyText(entry.requestBody());
+        String httpVersion = response.getStatusLine() != null && response.getStatusLine().startsWith("HTTP/")
+                ? response.getStatusLine().split(" ", 2)[0] : "HTTP/1.1";
+        Timings timings = entry.timings();
+
+        json.writeStartObject();
+        json.writeStringField("startedDateTime", entry.started().toString());
+        json.writeNumberField("time", millis(timings.total()));
+
+        json.writeObjectFieldStart("request");
+        json.writeStringField("method", entry.method());
+        json.writeStringField("url", entry.url());
+        json.writeStringField("httpVersion", httpVersion);
+        json.writeArrayFieldStart("cookies");
+        json.writeEndArray();
+        writeHeaders(entry.requestHeaders());
+        writeQueryString(entry.url());
+        if (requestBody != null && !requestBody.isEmpty()) {
+            json.writeObjectFieldStart("postData");
+            json.writeStringField("mimeType", entry.requestContentType() != null ? entry.requestContentType() : "");
+            json.writeStringField("text", requestBody);
+            json.writeEndObject();
+        }
+        json.writeNumberField("headersSize", -1);
+        json.writeNumberField("bodySize", requestBody != null ? requestBody.getBytes(StandardCharsets.UTF_8).length : 0);
+        json.writeEndObject();
+
+        json.writeObjectFieldStart("response");
+        json.writeNumberField("status", response.getStatusCode());
+        json.writeStringField("statusText", statusText(response.getStatusLine()));
+        json.writeStringField("httpVersion", httpVersion);
+        json.writeArrayFieldStart("cookies");
+        json.writeEndArray();
+        writeHeaders(response.getHeaders());
+        json.writeObjectFieldStart("content");
+        json.writeNumberField("size", body.size());
+        json.writeStringField("mimeType", body.getContentType() != null ? body.getContentType() : "");
+        json.writeStringField("text", body.asString());
+        json.writeEndObject();
+        json.writeStringField("redirectURL", "");
+        json.writeNumberField("headersSize", -1);
+        json.writeNumberField("bodySize", body.size());
+        json.writeEndObject();
+
+        json.writeObjectFieldStart("cache");
+        json.writeEndObject();
+
+        json.writeObjectFieldStart("timings");
+        json.writeNumberField("blocked", millis(timings.blocked()));
+        json.writeNumberField("dns", millis(timings.dns()));
+        json.writeNumberField("connect", millis(timings.connect()));
+        json.writeNumberField("ssl", -1);
+        json.writeNumberField("send", 0);
+        json.writeNumberField("wait", millis(timings.waitTime()));
+        json.writeNumberField("receive", millis(timings.receive()));
+        json.writeEndObject();
+        json.writeEndObject();
+    }
+
+    private void writeHeaders(Headers headers) throws IOException {
+        json.writeArrayFieldStart("headers");
+        if (headers != null) {
+            for (Header header : headers) {
+                json.writeStartObject();
+                json.writeStringField("name", header.getName());
+                json.writeStringField("value", MASKED_HEADERS.contains(header.getName().toLowerCase())
+                        ? "***" : header.getValue());
+                json.writeEndObject();
+            }
+        }
+        json.writeEndArray();
+    }
+
+    private void writeQueryString(String url) throws IOException {
+        json.writeArrayFieldStart("queryString");
+        int start = url != null ? url.indexOf('?') : -1;
+        if (start >= 0) {
+            int end = url.indexOf('#', start);
+            String query = url.substring(start + 1, end >= 0 ? end : url.length());
+            for (String pair : query.split("&")) {
+                if (pair.isEmpty()) {
+                    continue;
+                }
+                int eq = pair.indexOf('=');
+                json.writeStartObject();
+                json.writeStringField("name", decode(eq >= 0 ? pair.substring(0, eq) : pair));
+                json.writeStringField("value", eq >= 0 ? decode(pair.substring(eq + 1)) : "");
+                json.writeEndObject();
+            }
+        }
+        json.writeEndArray();
+    }
+
+    private static String decode(String value) {
+        try {
+            return URLDecoder.decode(value, StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            // Некоректне %-кодування - лишаємо як є
+            return value;
+        }
+    }
+
+    /**
+     * Тіло запиту як текст: RestAssured віддає серіалізоване тіло як String або byte[]
+     */
+    private static String requestBodyText(Object body) {
+        if (body == null) {
+            return null;
+        }
+        if (body instanceof byte[] bytes) {
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+        return body.toString();
+    }
+
+    private static String statusText(String statusLine) {
+        if (statusLine == null) {
+            return "";
+        }
+        String[] parts = statusLine.split(" ", 3);
+        return parts.length == 3 ? parts[2] : "";
+    }
+
+    /**
+     * Наносекунди → мілісекунди HAR (-1 = невідомо)
+     */
+    private static double millis(long nanos) {
+        return nanos < 0 ? -1 : Math.round(nanos / 1_000.0) / 1_000.0;
+    }
+
+    // ==================== Inner Types ====================
+
+    /**
+     * Обмін, як його бачить потік запиту (тіло вже прочитане) - форматування відбувається у worker
+     */
+    public record Entry(Instant started, String method, String url, Headers requestHeaders,
+                        String requestContentType, Object requestBody, Response response, BufferedResponse body,
+                        Timings timings) {
+    }
+
+    /**
+     * Фази запиту в наносекундах (-1 = фаза не відбулась або невідома)
+     */
+    public record Timings(long blocked, long dns, long connect, long waitTime, long receive, long total) {
+    }
+
+    private static class CountingOutputStream extends OutputStream {
+        private final OutputStream delegate;
+        private long count;
+
+        CountingOutputStream(OutputStream delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            delegate.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] buffer, int offset, int length) throws IOException {
+            delegate.write(buffer, offset, length);
+            count += length;
+        }
+
+        @Override
+        public void flush() throws IOException {
+            delegate.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            delegate.close();
+        }
+    }
+}
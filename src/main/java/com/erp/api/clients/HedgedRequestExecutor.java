@@ -0,0 +1,210 @@
+package com.erp.api.clients;
+
+import com.erp.api.endpoints.ApiEndpointDefinition;
+import com.erp.utils.config.ConfigProvider;
+import com.erp.utils.metrics.ClientMetrics;
+import io.restassured.response.Response;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * 🦔 Hedged requests for idempotent GETs (api.hedge.enabled=true + EndpointPolicy.hedged)
+ * <p>
+ * - the request is sent; if no response arrives within the hedge delay, an identical one is sent
+ * - the first successful response wins; the other request is aborted (its connection is shut down),
+ *   so it gives back its concurrency / adaptive slots at once
+ * - hedge delay = api.hedge.percentile of the endpoint's recent latencies,
+ *   or api.hedge.initial.delay.ms until api.hedge.min.samples are collected
+ * <p>
+ * Both requests run on virtual threads, so they are not captured by the per-thread
+ * ExchangeCaptureFilter buffer.
+ * <p>
+ * Counters in ClientMetrics: api.hedge.issued / api.hedge.won / api.hedge.aborted
+ */
+@Slf4j
+public class HedgedRequestExecutor {
+
+    private static final int LATENCY_WINDOW_SIZE = 128;
+
+    private static volatile HedgedRequestExecutor sharedInstance;
+
+    private final boolean enabled;
+    private final double percentile;
+    private final long initialDelayMillis;
+    private final int minSamples;
+
+    private final Map<ApiEndpointDefinition, LatencyWindow> latencies = new ConcurrentHashMap<>();
+    private final ExecutorService executor = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("hedge-", 0).factory());
+
+    public HedgedRequestExecutor(boolean enabled, double percentile, long initialDelayMillis, int minSamples) {
+        this.enabled = enabled;
+        this.percentile = percentile;
+        this.initialDelayMillis = initialDelayMillis;
+        this.minSamples = minSamples;
+    }
+
+    public static HedgedRequestExecutor shared() {
+        if (sharedInstance == null) {
+            synchronized (HedgedRequestExecutor.class) {
+                if (sharedInstance == null) {
+                    sharedInstance = new HedgedRequestExecutor(
+                            ConfigProvider.getConfig().apiHedgeEnabled(),
+                            ConfigProvider.getConfig().apiHedgePercentile(),
+                            ConfigProvider.getConfig().apiHedgeInitialDelayMs(),
+                            ConfigProvider.getConfig().apiHedgeMinSamples());
+                }
+            }
+        }
+        return sharedInstance;
+    }
+
+    public boolean appliesTo(ApiEndpointDefinition endpoint) {
+        return enabled && endpoint.getPolicy().isHedged();
+    }
+
+    /**
+     * Виконує запит з можливим дублюванням
+     */
+    public Response execute(ApiEndpointDefinition endpoint, Supplier<Response> call) {
+        LatencyWindow window = latencies.computeIfAbsent(endpoint, e -> new LatencyWindow(LATENCY_WINDOW_SIZE));
+        long delay = hedgeDelay(window);
+
+        CompletableFuture<Response> winner = new CompletableFuture<>();
+        // Запити в польоті, рахуючи оригінал ще до відправки; помилка віддається, коли впали всі
+        AtomicInteger pending = new AtomicInteger(1);
+        Set<DeadlineExecutor.Scope> attempts = ConcurrentHashMap.newKeySet();
+        // Дедлайн не успадковується - передається потокам спроб явно
+        DeadlineExecutor.Scope deadline = DeadlineExecutor.current();
+
+        submit(call, window, winner, pending, attempts, deadline, false);
+
+        try {
+            return winner.get(delay, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            // Відповідь могла прийти вже після таймауту, а оригінал - впасти: тоді дубль не потрібен
+            if (winner.isDone() || pending.getAndUpdate(p -> p > 0 ? p + 1 : p) == 0) {
+                return await(winner);
+            }
+            ClientMetrics.increment("api.hedge.issued");
+            log.debug("🦔 No response from {} after {} ms - sending hedged request", endpoint.name(), delay);
+            submit(call, window, winner, pending, attempts, deadline, true);
+            return await(winner);
+        } catch (ExecutionException e) {
+            throw unwrap(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for " + endpoint.name(), e);
+        }
+    }
+
+    private void submit(Supplier<Response> call, LatencyWindow window, CompletableFuture<Response> winner,
+                        AtomicInteger pending, Set<DeadlineExecutor.Scope> attempts,
+                        DeadlineExecutor.Scope deadline, boolean hedge) {
+        executor.execute(() -> {
+            DeadlineExecutor.Scope scope = DeadlineExecutor.openScope(deadline);
+            attempts.add(scope);
+            long start = System.nanoTime();
+            try {
+                // Переможець з'явився до старту - запит не відправляється
+                if (winner.isDone()) {
+                    return;
+                }
+                Response response = call.get();
+                window.record(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+                if (winner.complete(response)) {
+                    if (hedge) {
+                        ClientMetrics.increment("api.hedge.won");
+                    }
+                    attempts.forEach(attempt -> {
+                        if (attempt != scope) {
+                            ClientMetrics.increment("api.hedge.aborted");
+                            attempt.cancel();
+                        }
+                    });
+                }
+            } catch (Throwable t) {
+                // Помилка віддається тільки коли впали всі відправлені запити
+                if (pending.decrementAndGet() == 0) {
+                    winner.completeExceptionally(t);
+                }
+            } finally {
+                attempts.remove(scope);
+                scope.close();
+            }
+        });
+    }
+
+    private long hedgeDelay(LatencyWindow window) {
+        if (window.size() < minSamples) {
+            return initialDelayMillis;
+        }
+        return Math.max(1, window.percentile(percentile));
+    }
+
+    private Response await(CompletableFuture<Response> winner) {
+        try {
+            return winner.get();
+        } catch (ExecutionException e) {
+            throw unwrap(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for hedged request", e);
+        }
+    }
+
+    private RuntimeException unwrap(ExecutionException e) {
+        Throwable cause = e.getCause();
+        if (cause instanceof RuntimeException runtimeException) {
+            return runtimeException;
+        }
+        if (cause instanceof Error error) {
+            throw error;
+        }
+        return new IllegalStateException(cause);
+    }
+
+    // ==================== Inner Classes ====================
+
+    /**
+     * Кільцевий буфер останніх латентностей endpoint'а
+     */
+    static class LatencyWindow {
+        private final long[] samples;
+        private int next;
+        private int count;
+
+        LatencyWindow(int capacity) {
+            this.samples = new long[capacity];
+        }
+
+        synchronized void record(long millis) {
+            samples[next] = millis;
+            next = (next + 1) % samples.length;
+            count = Math.min(count + 1, samples.length);
+        }
+
+        synchronized int size() {
+            return count;
+        }
+
+        synchronized long percentile(double p) {
+            long[] sorted = Arrays.copyOf(samples, count);
+            Arrays.sort(sorted);
+            int index = (int) Math.ceil(p / 100.0 * count) - 1;
+            return sorted[Math.max(0, Math.min(index, count - 1))];
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.erp.api.clients;
+
+import com.erp.api.endpoints.ApiEndpointDefinition;
+import com.erp.utils.metrics.ClientMetrics;
+import io.restassured.response.Response;
+import lombok.experimental.UtilityClass;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpResponseInterceptor;
+import org.apache.http.entity.HttpEntityWrapper;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * 📏 Payload size accounting per endpoint
+ * <p>
+ * For every transfer two histograms are recorded in ClientMetrics:
+ * - api.payload.wire.bytes.ENDPOINT - bytes received from the socket (compressed, if the server compressed)
+ * - api.payload.body.bytes.ENDPOINT - decoded body size
+ * plus suite totals api.payload.wire.bytes / api.payload.body.bytes and api.payload.compressed (responses with Content-Encoding).
+ * <p>
+ * Wire bytes are counted by an HttpClient interceptor that runs before RestAssured's gzip/deflate decoder
+ * (sync) or passed by AsyncSessionClient, which decodes the body itself.
+ */
+@UtilityClass
+public class PayloadMetrics {
+
+    // Сирі байти останньої відповіді, прочитаної цим потоком (синхронний клієнт)
+    private static final ThreadLocal<long[]> WIRE_BYTES = ThreadLocal.withInitial(() -> new long[1]);
+
+    // Сирі байти async відповідей; значення не тримає Response - ключ звільняється разом з ним
+    private static final Map<Response, Long> ASYNC_WIRE_BYTES = Collections.synchronizedMap(new WeakHashMap<>());
+
+    /**
+     * Interceptor для HttpClient: рахує байти тіла до декомпресії
+     */
+    public static HttpResponseInterceptor wireCounter() {
+        return (response, context) -> {
+            HttpEntity entity = response.getEntity();
+            if (entity != null) {
+                long[] counter = WIRE_BYTES.get();
+                counter[0] = 0;
+                response.setEntity(new CountingEntity(entity, counter));
+            }
+        };
+    }
+
+    static void rememberWireBytes(Response response, long wireBytes) {
+        ASYNC_WIRE_BYTES.put(response, wireBytes);
+    }
+
+    /**
+     * Записує розміри відповіді endpoint'а (викликається потоком, що читав відповідь)
+     */
+    public static void record(ApiEndpointDefinition endpoint, Response response) {
+        long body = BufferedResponse.of(response).size();
+        Long asyncWire = ASYNC_WIRE_BYTES.remove(response);
+        long wire = asyncWire != null ? asyncWire : takeWireBytes(body);
+
+        ClientMetrics.histogram("api.payload.wire.bytes." + endpoint.name(), wire);
+        ClientMetrics.histogram("api.payload.body.bytes." + endpoint.name(), body);
+        ClientMetrics.add("api.payload.wire.bytes", wire);
+        ClientMetrics.add("api.payload.body.bytes", body);
+        if (response.getHeader("Content-Encoding") != null) {
+            ClientMetrics.increment("api.payload.compressed");
+        }
+    }
+
+    private static long takeWireBytes(long fallback) {
+        long[] counter = WIRE_BYTES.get();
+        long wire = counter[0];
+        counter[0] = 0;
+        // Відповідь не пройшла через пул (наприклад, з кешу) - вважаємо тіло нестиснутим
+        return wire > 0 ? wire : fallback;
+    }
+
+    // ==================== Inner Classes ====================
+
+    private static class CountingEntity extends HttpEntityWrapper {
+        private final long[] counter;
+
+        CountingEntity(HttpEntity wrapped, long[] counter) {
+            super(wrapped);
+            this.counter = counter;
+        }
+
+        @Override
+        public InputStream getContent() throws IOException {
+            return new FilterInputStream(super.getContent()) {
+                @Override
+                public int read() throws IOException {
+                    int b = super.read();
+                    if (b >= 0) {
+                        counter[0]++;
+                    }
+                    return b;
+                }
+
+                @Override
+                public int read(byte[] buffer, int offset, int length) throws IOException {
+                    int n = super.read(buffer, offset, length);
+                    if (n > 0) {
+                        counter[0] += n;
+                    }
+                    return n;
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,238 @@
+package com.erp.api.clients;
+
+import com.erp.utils.config.ConfigProvider;
+import com.erp.utils.metrics.ClientMetrics;
+import io.restassured.config.HttpClientConfig;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.http.HttpHost;
+import org.apache.http.conn.ClientConnectionOperator;
+import org.apache.http.conn.ClientConnectionRequest;
+import org.apache.http.conn.ConnectionPoolTimeoutException;
+import org.apache.http.conn.DnsResolver;
+import org.apache.http.conn.ManagedClientConnection;
+import org.apache.http.conn.OperatedClientConnection;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.conn.scheme.SchemeRegistry;
+import org.apache.http.cookie.Cookie;
+import org.apache.http.impl.client.BasicCookieStore;
+import org.apache.http.impl.client.DefaultHttpClient;
+import org.apache.http.impl.conn.DefaultClientConnectionOperator;
+import org.apache.http.impl.conn.PoolingClientConnectionManager;
+import org.apache.http.impl.conn.SystemDefaultDnsResolver;
+import org.apache.http.params.HttpParams;
+import org.apache.http.pool.PoolStats;
+import org.apache.http.protocol.HttpContext;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 🔌 Suite-wide keep-alive connection pool for RestAssured clients
+ * <p>
+ * Features:
+ * - One connection pool shared by every BaseClient / SessionClient; each request gets its own lightweight
+ *   HttpClient on top of it, because RestAssured writes per-request settings into the client's HttpParams
+ * - Max total and per-route connections (http.pool.max.total / http.pool.max.per.route)
+ * - Background eviction of idle and expired connections (http.pool.idle.timeout.seconds)
+ * - Telemetry in ClientMetrics: leased / available / pending / max gauges and lease wait time
+ * - Leased connections are registered with the caller's {@link DeadlineExecutor} deadline, so they can be aborted
+ * <p>
+ * RestAssured only works with the legacy AbstractHttpClient API, hence the deprecated
+ * PoolingClientConnectionManager.
+ */
+@Slf4j
+@SuppressWarnings("deprecation")
+public class PooledConnectionManager {
+
+    private static volatile PooledConnectionManager sharedInstance;
+
+    private final InstrumentedConnectionManager connectionManager;
+    private final HttpClientConfig httpClientConfig;
+    private final ScheduledExecutorService evictor;
+
+    private PooledConnectionManager(int maxTotal, int maxPerRoute) {
+        InstrumentedConnectionManager manager = new InstrumentedConnectionManager();
+        manager.setMaxTotal(maxTotal);
+        manager.setDefaultMaxPerRoute(maxPerRoute);
+        this.connectionManager = manager;
+
+        // Без reuseHttpClientInstance: RestAssured викликає фабрику на кожен запит і пише в HttpParams клієнта
+        // налаштування саме цього запиту - спільний клієнт був би гонкою. Пул з'єднань при цьому спільний.
+        this.httpClientConfig = HttpClientConfig.httpClientConfig()
+                .httpClientFactory(() -> createHttpClient(manager));
+
+        this.evictor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "http-pool-evictor");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Створює пул і запускає фонове витіснення та gauges
+     */
+    public static PooledConnectionManager create(int maxTotal, int maxPerRoute, int idleTimeoutSeconds) {
+        PooledConnectionManager pool = new PooledConnectionManager(maxTotal, maxPerRoute);
+        long period = Math.max(1, idleTimeoutSeconds / 2);
+        pool.evictor.scheduleAtFixedRate(() -> pool.evictIdle(idleTimeoutSeconds), period, period, TimeUnit.SECONDS);
+        pool.registerGauges();
+        log.info("🔌 HTTP connection pool initialized (maxTotal={}, maxPerRoute={}, idleTimeout={}s)",
+                maxTotal, maxPerRoute, idleTimeoutSeconds);
+        return pool;
+    }
+
+    public static PooledConnectionManager shared() {
+        if (sharedInstance == null) {
+            synchronized (PooledConnectionManager.class) {
+                if (sharedInstance == null) {
+                    sharedInstance = create(
+                            ConfigProvider.getConfig().httpPoolMaxTotal(),
+                            ConfigProvider.getConfig().httpPoolMaxPerRoute(),
+                            ConfigProvider.getConfig().httpPoolIdleTimeoutSeconds());
+                }
+            }
+        }
+        return sharedInstance;
+    }
+
+    /**
+     * HttpClientConfig для RestAssuredConfig, що використовує спільний пул
+     */
+    public HttpClientConfig httpClientConfig() {
+        return httpClientConfig;
+    }
+
+    public PoolStats getTotalStats() {
+        return connectionManager.getTotalStats();
+    }
+
+    public void logStats() {
+        PoolStats stats = getTotalStats();
+        ClientMetrics.Stats wait = ClientMetrics.stats("http.pool.lease.wait.micros");
+        log.info("🔌 HTTP pool: leased={}, available={}, pending={}, max={}, leaseWait=[{}]",
+                stats.getLeased(), stats.getAvailable(), stats.getPending(), stats.getMax(),
+                wait != null ? wait : "no leases");
+    }
+
+    public void shutdown() {
+        evictor.shutdownNow();
+        connectionManager.shutdown();
+        log.info("🔌 HTTP connection pool closed");
+    }
+
+    private static DefaultHttpClient createHttpClient(InstrumentedConnectionManager connectionManager) {
+        DefaultHttpClient client = new DefaultHttpClient(connectionManager);
+        // Куки передаються явно в кожному запиті - клієнт їх не зберігає
+        client.setCookieStore(new NoopCookieStore());
+        // Додається першим - бачить тіло ще до gzip/deflate декодера RestAssured
+        client.addResponseInterceptor(PayloadMetrics.wireCounter());
+        // Позначки фаз запиту для HAR (request interceptor - останній, перед записом у з'єднання)
+        client.addRequestInterceptor(HarCaptureFilter.requestSentMarker());
+        client.addResponseInterceptor(HarCaptureFilter.headersReceivedMarker());
+        return client;
+    }
+
+    private void evictIdle(int idleTimeoutSeconds) {
+        try {
+            connectionManager.closeExpiredConnections();
+            connectionManager.closeIdleConnections(idleTimeoutSeconds, TimeUnit.SECONDS);
+            if (log.isDebugEnabled()) {
+                logStats();
+            }
+        } catch (Exception e) {
+            log.warn("⚠️ Idle connection eviction failed: {}", e.getMessage());
+        }
+    }
+
+    private void registerGauges() {
+        ClientMetrics.gauge("http.pool.leased", () -> getTotalStats().getLeased());
+        ClientMetrics.gauge("http.pool.available", () -> getTotalStats().getAvailable());
+        ClientMetrics.gauge("http.pool.pending", () -> getTotalStats().getPending());
+        ClientMetrics.gauge("http.pool.max", () -> getTotalStats().getMax());
+    }
+
+    // ==================== Inner Classes ====================
+
+    /**
+     * Pooling manager, що вимірює час очікування вільного з'єднання
+     */
+    private static class InstrumentedConnectionManager extends PoolingClientConnectionManager {
+
+        /**
+         * Operator, що вимірює DNS та встановлення нового з'єднання (фази HAR)
+         */
+        @Override
+        protected ClientConnectionOperator createConnectionOperator(SchemeRegistry schemeRegistry) {
+            DnsResolver timedResolver = host -> {
+                long start = System.nanoTime();
+                try {
+                    return SystemDefaultDnsResolver.INSTANCE.resolve(host);
+                } finally {
+                    HarCaptureFilter.onDns(System.nanoTime() - start);
+                }
+            };
+            return new DefaultClientConnectionOperator(schemeRegistry, timedResolver) {
+                @Override
+                public void openConnection(OperatedClientConnection connection, HttpHost target, InetAddress local,
+                                           HttpContext context, HttpParams params) throws IOException {
+                    long start = System.nanoTime();
+                    try {
+                        super.openConnection(connection, target, local, context, params);
+                    } finally {
+                        HarCaptureFilter.onConnect(System.nanoTime() - start);
+                    }
+                }
+            };
+        }
+
+        @Override
+        public ClientConnectionRequest requestConnection(HttpRoute route, Object state) {
+            ClientConnectionRequest delegate = super.requestConnection(route, state);
+            return new ClientConnectionRequest() {
+                @Override
+                public ManagedClientConnection getConnection(long timeout, TimeUnit unit)
+                        throws InterruptedException, ConnectionPoolTimeoutException {
+                    long start = System.nanoTime();
+                    try {
+                        ManagedClientConnection connection = delegate.getConnection(timeout, unit);
+                        DeadlineExecutor.track(connection);
+                        return connection;
+                    } catch (ConnectionPoolTimeoutException e) {
+                        ClientMetrics.increment("http.pool.lease.timeout");
+                        throw e;
+                    } finally {
+                        ClientMetrics.increment("http.pool.lease.count");
+                        ClientMetrics.record("http.pool.lease.wait.micros",
+                                TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start));
+                    }
+                }
+
+                @Override
+                public void abortRequest() {
+                    delegate.abortRequest();
+                }
+            };
+        }
+
+        @Override
+        public void releaseConnection(ManagedClientConnection connection, long keepAlive, TimeUnit unit) {
+            DeadlineExecutor.untrack(connection);
+            super.releaseConnection(connection, keepAlive, unit);
+        }
+    }
+
+    /**
+     * Cookie store, що нічого не зберігає
+     */
+    private static class NoopCookieStore extends BasicCookieStore {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        public synchronized void addCookie(Cookie cookie) {
+            // ignore
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package com.erp.api.clients;
+
+import com.erp.api.endpoints.ApiEndpointDefinition;
+import com.erp.enums.UserRole;
+import com.erp.utils.config.ConfigProvider;
+import com.erp.utils.metrics.ClientMetrics;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * 🪣 Token-bucket rate limiter per endpoint × role and per role
+ * <p>
+ * - endpoint × role: EndpointPolicy.ratePerSecond / burst (every role gets its own bucket)
+ * - role: api.rate.limit.roles, e.g. "ADMIN:20,OWNER_1:10:30" (role:requestsPerSecond[:burst])
+ * <p>
+ * Callers never fail - they are parked until their reservation is due
+ * (cheap on virtual threads). A caller interrupted while parked (deadline expiry) gives its
+ * reservation back, so the requests behind it don't wait for a request that was never sent.
+ * Waits are recorded in ClientMetrics.
+ */
+@Slf4j
+public class RateLimiter {
+
+    private static volatile RateLimiter sharedInstance;
+
+    private final Map<UserRole, TokenBucket> roleBuckets;
+    private final Map<String, TokenBucket> endpointBuckets = new ConcurrentHashMap<>();
+
+    public RateLimiter(Map<UserRole, TokenBucket> roleBuckets) {
+        this.roleBuckets = roleBuckets;
+    }
+
+    public static RateLimiter shared() {
+        if (sharedInstance == null) {
+            synchronized (RateLimiter.class) {
+                if (sharedInstance == null) {
+                    sharedInstance = new RateLimiter(parseRoleLimits(ConfigProvider.getConfig().apiRateLimitRoles()));
+                }
+            }
+        }
+        return sharedInstance;
+    }
+
+    /**
+     * Блокує потік, доки для запиту не з'явиться токен в обох відрах
+     */
+    public void acquire(ApiEndpointDefinition endpoint, UserRole role) {
+        long waitNanos = 0;
+
+        TokenBucket roleBucket = roleBuckets.get(role);
+        if (roleBucket != null) {
+            waitNanos = Math.max(waitNanos, roleBucket.reserve());
+        }
+
+        TokenBucket endpointBucket = null;
+        double rate = endpoint.getPolicy().getRatePerSecond();
+        if (rate > 0) {
+            int burst = endpoint.getPolicy().getBurst() > 0 ? endpoint.getPolicy().getBurst() : (int) Math.ceil(rate);
+            endpointBucket = endpointBuckets.computeIfAbsent(endpoint.name() + ":" + role,
+                    k -> new TokenBucket(rate, burst));
+            waitNanos = Math.max(waitNanos, endpointBucket.reserve());
+        }
+
+        if (waitNanos > 0) {
+            ClientMetrics.increment("api.rate.limit.waits");
+            ClientMetrics.record("api.rate.limit.wait.millis", TimeUnit.NANOSECONDS.toMillis(waitNanos));
+            log.debug("🪣 Rate limit: {} as {} parked for {} ms", endpoint.name(), role,
+                    TimeUnit.NANOSECONDS.toMillis(waitNanos));
+            try {
+                TimeUnit.NANOSECONDS.sleep(waitNanos);
+            } catch (InterruptedException e) {
+                // Запит не піде - повертаємо резерв, інакше наступні чекали б за нього
+                if (roleBucket != null) {
+                    roleBucket.refund();
+                }
+                if (endpointBucket != null) {
+                    endpointBucket.refund();
+                }
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for rate limit", e);
+            }
+        }
+    }
+
+    static Map<UserRole, TokenBucket> parseRoleLimits(String spec) {
+        Map<UserRole, TokenBucket> buckets = new EnumMap<>(UserRole.class);
+        if (spec == null || spec.isBlank()) {
+            return buckets;
+        }
+        for (String entry : spec.split(",")) {
+            String[] parts = entry.trim().split(":");
+            if (parts.length < 2) {
+                throw new IllegalArgumentException("Invalid api.rate.limit.roles entry: '" + entry
+                        + "' (expected ROLE:requestsPerSecond[:burst])");
+            }
+            UserRole role = UserRole.valueOf(parts[0].trim());
+            double rate = Double.parseDouble(parts[1].trim());
+            int burst = parts.length > 2 ? Integer.parseInt(parts[2].trim()) : (int) Math.ceil(rate);
+            buckets.put(role, new TokenBucket(rate, burst));
+            log.info("🪣 Rate limit for {}: {} req/s, burst {}", role, rate, burst);
+        }
+        return buckets;
+    }
+
+    // ==================== Inner Classes ====================
+
+    /**
+     * Token bucket з резервуванням: токени можуть піти в мінус,
+     * тоді викликач чекає, доки борг не буде погашено (FIFO за порядком резервування)
+     */
+    static class TokenBucket {
+        private final double ratePerNano;
+        private final double capacity;
+        private final LongSupplier nanoClock;
+        private double tokens;
+        private long lastRefill;
+
+        TokenBucket(double ratePerSecond, int burst) {
+            this(ratePerSecond, burst, System::nanoTime);
+        }
+
+        TokenBucket(double ratePerSecond, int burst, LongSupplier nanoClock) {
+            this.ratePerNano = ratePerSecond / TimeUnit.SECONDS.toNanos(1);
+            this.capacity = Math.max(1, burst);
+            this.nanoClock = nanoClock;
+            this.tokens = capacity;
+            this.lastRefill = nanoClock.getAsLong();
+        }
+
+        /**
+         * Забирає токен і повертає, скільки наносекунд треба почекати (0 - одразу)
+         */
+        synchronized long reserve() {
+            long now = nanoClock.getAsLong();
+            tokens = Math.min(capacity, tokens + (now - lastRefill) * ratePerNano);
+            lastRefill = now;
+            tokens -= 1;
+            return tokens >= 0 ? 0 : (long) (-tokens / ratePerNano);
+        }
+
+        /**
+         * Повертає токен невикористаного резерву (зменшує борг)
+         */
+        synchronized void refund() {
+            tokens = Math.min(capacity, tokens + 1);
+        }
+    }
+}
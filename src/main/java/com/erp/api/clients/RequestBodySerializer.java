@@ -0,0 +1,85 @@
+package com.erp.api.clients;
+
+import com.erp.utils.metrics.ClientMetrics;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import lombok.experimental.UtilityClass;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * 🧾 Serialize-once cache for request bodies
+ * <p>
+ * The same body object (e.g. one RBAC rule body sent for every allowed and denied role)
+ * is turned into JSON once and the result is reused for every request.
+ * <p>
+ * - key: the body itself (equals / hashCode - content for Lombok @Data DTOs, identity otherwise),
+ *   held weakly, so entries disappear together with the body
+ * - the hash at serialization time is kept, a body mutated after the first send is serialized again
+ * - String and byte[] bodies are passed through unchanged
+ * <p>
+ * Same ObjectMapper setup as RestAssured's default Jackson mapper (findAndRegisterModules).
+ * Counters in ClientMetrics: api.body.serialize.hit / miss
+ */
+@UtilityClass
+public class RequestBodySerializer {
+
+    // Значення не тримає посилання на body - інакше ключ ніколи не звільнився б
+    private static final Map<Object, Serialized> CACHE = Collections.synchronizedMap(new WeakHashMap<>());
+
+    /**
+     * JSON тіла для RestAssured (String не серіалізується повторно і читабельний в логах / Allure)
+     */
+    public static Object toJson(Object body) {
+        if (body == null || body instanceof String || body instanceof byte[]) {
+            return body;
+        }
+        return serialized(body).json();
+    }
+
+    /**
+     * UTF-8 байти тіла (для java.net.http клієнта)
+     */
+    public static byte[] toBytes(Object body) {
+        if (body == null) {
+            return new byte[0];
+        }
+        if (body instanceof byte[] bytes) {
+            return bytes;
+        }
+        if (body instanceof String str) {
+            return str.getBytes(StandardCharsets.UTF_8);
+        }
+        return serialized(body).bytes();
+    }
+
+    public static void clear() {
+        CACHE.clear();
+    }
+
+    private static Serialized serialized(Object body) {
+        int hash = body.hashCode();
+        Serialized cached = CACHE.get(body);
+        if (cached != null && cached.hash() == hash) {
+            ClientMetrics.increment("api.body.serialize.hit");
+            return cached;
+        }
+
+        ClientMetrics.increment("api.body.serialize.miss");
+        try {
+            String json = BufferedResponse.JSON.writeValueAsString(body);
+            Serialized result = new Serialized(hash, json, json.getBytes(StandardCharsets.UTF_8));
+            CACHE.put(body, result);
+            return result;
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Failed to serialize request body " + body.getClass().getName(), e);
+        }
+    }
+
+    // ==================== Inner Types ====================
+
+    private record Serialized(int hash, String json, byte[] bytes) {
+    }
+}
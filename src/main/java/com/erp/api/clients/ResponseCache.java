@@ -0,0 +1,164 @@
+package com.erp.api.clients;
+
+import com.erp.utils.config.ConfigProvider;
+import com.erp.utils.metrics.ClientMetrics;
+import io.restassured.response.Response;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * 🗄️ Read-through cache for reference-data GETs (api.cache.enabled=true)
+ * <p>
+ * - only endpoints with EndpointPolicy.cacheable
+ * - key: endpoint + role + resolved path; only 2xx responses are stored
+ * - TTL (api.cache.ttl.seconds) and LRU size limit (api.cache.max.entries)
+ * - any write (POST/PUT/PATCH/DELETE) to the same path family invalidates its entries
+ * <p>
+ * A GET that was in flight while a write happened is not stored:
+ * each family has a version, bumped on every write.
+ * <p>
+ * Counters in ClientMetrics: api.cache.hit / miss / eviction / invalidation
+ */
+@Slf4j
+public class ResponseCache {
+
+    private static volatile ResponseCache sharedInstance;
+
+    private final boolean enabled;
+    private final long ttlMillis;
+    private final int maxEntries;
+    private final LongSupplier clock;
+
+    // LRU за порядком доступу; доступ тільки під synchronized(entries)
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<String, AtomicLong> familyVersions = new ConcurrentHashMap<>();
+
+    public ResponseCache(boolean enabled, long ttlMillis, int maxEntries) {
+        this(enabled, ttlMillis, maxEntries, System::currentTimeMillis);
+    }
+
+    ResponseCache(boolean enabled, long ttlMillis, int maxEntries, LongSupplier clock) {
+        this.enabled = enabled;
+        this.ttlMillis = ttlMillis;
+        this.maxEntries = Math.max(1, maxEntries);
+        this.clock = clock;
+    }
+
+    public static ResponseCache shared() {
+        if (sharedInstance == null) {
+            synchronized (ResponseCache.class) {
+                if (sharedInstance == null) {
+                    sharedInstance = new ResponseCache(
+                            ConfigProvider.getConfig().apiCacheEnabled(),
+                            ConfigProvider.getConfig().apiCacheTtlSeconds() * 1000L,
+                            ConfigProvider.getConfig().apiCacheMaxEntries());
+                    if (sharedInstance.enabled) {
+                        log.info("🗄️ Response cache enabled (ttl={}s, maxEntries={})",
+                                ConfigProvider.getConfig().apiCacheTtlSeconds(), sharedInstance.maxEntries);
+                    }
+                }
+            }
+        }
+        return sharedInstance;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Повертає збережену відповідь або null
+     */
+    public Response get(String key) {
+        synchronized (entries) {
+            Entry entry = entries.get(key);
+            if (entry == null) {
+                ClientMetrics.increment("api.cache.miss");
+                return null;
+            }
+            if (entry.isExpired(clock.getAsLong())) {
+                entries.remove(key);
+                ClientMetrics.increment("api.cache.eviction");
+                ClientMetrics.increment("api.cache.miss");
+                return null;
+            }
+            ClientMetrics.increment("api.cache.hit");
+            log.debug("🗄️ Cache hit: {}", key);
+            return entry.response();
+        }
+    }
+
+    /**
+     * Поточна версія сім'ї - береться перед відправкою GET і передається в {@link #put}
+     */
+    public long version(String pathFamily) {
+        return familyVersions.computeIfAbsent(pathFamily, f -> new AtomicLong()).get();
+    }
+
+    /**
+     * Зберігає 2xx відповідь, якщо за час запиту не було запису в ту ж сім'ю
+     */
+    public void put(String key, String pathFamily, long versionBeforeRequest, Response response) {
+        if (response.getStatusCode() < 200 || response.getStatusCode() >= 300) {
+            return;
+        }
+        synchronized (entries) {
+            if (version(pathFamily) != versionBeforeRequest) {
+                log.debug("🗄️ Not caching {} - {} was modified during the request", key, pathFamily);
+                return;
+            }
+            entries.put(key, new Entry(pathFamily, response, clock.getAsLong() + ttlMillis));
+            evictIfNeeded();
+        }
+    }
+
+    /**
+     * Скидає всі записи сім'ї (викликається після запису)
+     */
+    public void invalidate(String pathFamily) {
+        synchronized (entries) {
+            familyVersions.computeIfAbsent(pathFamily, f -> new AtomicLong()).incrementAndGet();
+            int removed = 0;
+            Iterator<Entry> iterator = entries.values().iterator();
+            while (iterator.hasNext()) {
+                if (iterator.next().pathFamily().equals(pathFamily)) {
+                    iterator.remove();
+                    removed++;
+                }
+            }
+            if (removed > 0) {
+                ClientMetrics.add("api.cache.invalidation", removed);
+                log.debug("🗄️ Invalidated {} cached response(s) for {}", removed, pathFamily);
+            }
+        }
+    }
+
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    private void evictIfNeeded() {
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (entries.size() > maxEntries && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+            ClientMetrics.increment("api.cache.eviction");
+        }
+    }
+
+    // ==================== Inner Types ====================
+
+    private record Entry(String pathFamily, Response response, long expiresAt) {
+        boolean isExpired(long now) {
+            return now > expiresAt;
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.erp.api.clients;
+
+import com.erp.utils.metrics.ClientMetrics;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * 💰 Suite-wide retry budget
+ * <p>
+ * Retries allowed right now = {@code reserve} + {@code ratio} × requests of the last {@code windowSeconds}
+ * − retries of the same window. A struggling backend gets at most ~ratio × requests extra load
+ * instead of a retry storm; the reserve lets the first failures of a quiet suite retry at all.
+ * Requests and retries leave the window after windowSeconds, so the budget recovers on its own.
+ */
+public class RetryBudget {
+
+    private final double ratio;
+    private final int reserve;
+    private final LongSupplier nanoClock;
+
+    // Кільце посекундних кошиків; доступ тільки під synchronized(this)
+    private final long[] bucketSeconds;
+    private final long[] requests;
+    private final long[] retries;
+
+    public RetryBudget(double ratio, int reserve, int windowSeconds) {
+        this(ratio, reserve, windowSeconds, System::nanoTime);
+    }
+
+    RetryBudget(double ratio, int reserve, int windowSeconds, LongSupplier nanoClock) {
+        this.ratio = ratio;
+        this.reserve = Math.max(reserve, 0);
+        this.nanoClock = nanoClock;
+        int buckets = Math.max(windowSeconds, 1);
+        this.bucketSeconds = new long[buckets];
+        this.requests = new long[buckets];
+        this.retries = new long[buckets];
+        Arrays.fill(bucketSeconds, Long.MIN_VALUE);
+    }
+
+    /**
+     * Реєструє звичайний (не повторний) запит
+     */
+    public synchronized void onRequest() {
+        requests[bucket()]++;
+    }
+
+    /**
+     * Пробує забрати токен для повтору
+     */
+    public synchronized boolean tryAcquireRetry() {
+        int current = bucket();
+        if (available() < 1.0) {
+            ClientMetrics.increment("api.retry.budget.exhausted");
+            return false;
+        }
+        retries[current]++;
+        return true;
+    }
+
+    public synchronized double getBalance() {
+        bucket();
+        return available();
+    }
+
+    private double available() {
+        long windowRequests = 0;
+        long windowRetries = 0;
+        for (int i = 0; i < bucketSeconds.length; i++) {
+            windowRequests += requests[i];
+            windowRetries += retries[i];
+        }
+        return reserve + ratio * windowRequests - windowRetries;
+    }
+
+    /**
+     * Кошик поточної секунди; кошики, що випали з вікна, обнуляються
+     */
+    private int bucket() {
+        long second = TimeUnit.NANOSECONDS.toSeconds(nanoClock.getAsLong());
+        for (int i = 0; i < bucketSeconds.length; i++) {
+            if (bucketSeconds[i] != Long.MIN_VALUE && second - bucketSeconds[i] >= bucketSeconds.length) {
+                bucketSeconds[i] = Long.MIN_VALUE;
+                requests[i] = 0;
+                retries[i] = 0;
+            }
+        }
+        int index = (int) Math.floorMod(second, (long) bucketSeconds.length);
+        if (bucketSeconds[index] != second) {
+            bucketSeconds[index] = second;
+            requests[index] = 0;
+            retries[index] = 0;
+        }
+        return index;
+    }
+}
@@ -0,0 +1,153 @@
+package com.erp.api.clients;
+
+import com.erp.api.endpoints.ApiEndpointDefinition;
+import com.erp.api.endpoints.RetryPolicy;
+import com.erp.utils.config.ConfigProvider;
+import com.erp.utils.config.TestConfig;
+import com.erp.utils.metrics.ClientMetrics;
+import io.qameta.allure.Allure;
+import io.restassured.response.Response;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * 🔁 Retries transient failures of idempotent requests
+ * <p>
+ * - policy: EndpointPolicy.retry, zero values fall back to api.retry.*
+ * - GET / HEAD / OPTIONS: statuses from the policy (502/503/504 by default) and IOExceptions
+ * - PUT / DELETE (only with RetryPolicy.retryIdempotentWrites): connect-phase failures only
+ * - backoff: exponential with full jitter, capped by max backoff and by the time budget
+ * - every retry needs a token from the suite-wide {@link RetryBudget}
+ * <p>
+ * Each retry is an Allure step and a ClientMetrics counter, so retried tests stay visible.
+ */
+@Slf4j
+public class RetryExecutor {
+
+    private static volatile RetryExecutor sharedInstance;
+
+    private final boolean enabled;
+    private final RetryBudget budget;
+    private final TestConfig config;
+
+    public RetryExecutor(boolean enabled, RetryBudget budget, TestConfig config) {
+        this.enabled = enabled;
+        this.budget = budget;
+        this.config = config;
+    }
+
+    public static RetryExecutor shared() {
+        if (sharedInstance == null) {
+            synchronized (RetryExecutor.class) {
+                if (sharedInstance == null) {
+                    TestConfig config = ConfigProvider.getConfig();
+                    sharedInstance = new RetryExecutor(
+                            config.apiRetryEnabled(),
+                            new RetryBudget(config.apiRetryBudgetRatio(), config.apiRetryBudgetReserve(),
+                                    config.apiRetryBudgetWindowSeconds()),
+                            config);
+                    ClientMetrics.gauge("api.retry.budget.balance", sharedInstance.budget::getBalance);
+                }
+            }
+        }
+        return sharedInstance;
+    }
+
+    public Response execute(ApiEndpointDefinition endpoint, Supplier<Response> call) {
+        budget.onRequest();
+        RetryPolicy policy = endpoint.getPolicy().getRetry();
+        if (!enabled || !policy.isRetryable(endpoint.getHttpMethod())) {
+            return call.get();
+        }
+        // Запис міг бути застосований навіть при 5xx / read timeout - повторюємо тільки невідправлені
+        boolean safe = RetryPolicy.isSafe(endpoint.getHttpMethod());
+
+        int maxAttempts = policy.getMaxAttempts() > 0 ? policy.getMaxAttempts() : config.apiRetryMaxAttempts();
+        long initialBackoff = policy.getInitialBackoffMillis() > 0
+                ? policy.getInitialBackoffMillis() : config.apiRetryInitialBackoffMs();
+        long maxBackoff = policy.getMaxBackoffMillis() > 0 ? policy.getMaxBackoffMillis() : config.apiRetryMaxBackoffMs();
+        long maxElapsed = policy.getMaxElapsedMillis() > 0 ? policy.getMaxElapsedMillis() : config.apiRetryMaxElapsedMs();
+        long deadline = System.currentTimeMillis() + maxElapsed;
+
+        for (int attempt = 1; ; attempt++) {
+            String failure;
+            try {
+                Response response = call.get();
+                if (!safe || !policy.getRetryableStatuses().contains(response.getStatusCode())) {
+                    if (attempt > 1) {
+                        ClientMetrics.increment("api.retry.recovered");
+                    }
+                    return response;
+                }
+                failure = "status " + response.getStatusCode();
+                if (!canRetry(endpoint, attempt, maxAttempts, deadline, failure)) {
+                    return response;
+                }
+            } catch (Exception e) {
+                boolean retryable = safe
+                        ? policy.isRetryOnIOException() && isIOException(e)
+                        : RetryPolicy.isConnectFailure(e);
+                if (!retryable) {
+                    throw e;
+                }
+                failure = e.getClass().getSimpleName() + ": " + e.getMessage();
+                if (!canRetry(endpoint, attempt, maxAttempts, deadline, failure)) {
+                    throw e;
+                }
+            }
+
+            long backoff = Math.min(backoff(attempt, initialBackoff, maxBackoff),
+                    Math.max(0, deadline - System.currentTimeMillis()));
+            String step = String.format("🔁 Retry %d/%d of %s after %s (backoff %d ms)",
+                    attempt + 1, maxAttempts, endpoint.name(), failure, backoff);
+            log.warn(step);
+            Allure.step(step);
+            ClientMetrics.increment("api.retry.attempt");
+            ClientMetrics.increment("api.retry.attempt." + endpoint.name());
+            sleep(backoff);
+        }
+    }
+
+    private boolean canRetry(ApiEndpointDefinition endpoint, int attempt, int maxAttempts, long deadline, String failure) {
+        if (attempt >= maxAttempts || System.currentTimeMillis() >= deadline) {
+            if (maxAttempts > 1) {
+                ClientMetrics.increment("api.retry.gave.up");
+                log.warn("🔁 Giving up on {} after {} attempt(s): {}", endpoint.name(), attempt, failure);
+            }
+            return false;
+        }
+        if (!budget.tryAcquireRetry()) {
+            log.warn("💰 Retry budget exhausted - not retrying {} ({})", endpoint.name(), failure);
+            return false;
+        }
+        return true;
+    }
+
+    // Full jitter: random(0, min(max, initial * 2^(attempt-1)))
+    private long backoff(int attempt, long initialBackoff, long maxBackoff) {
+        long exponential = initialBackoff << Math.min(attempt - 1, 20);
+        long cap = Math.min(maxBackoff, exponential);
+        return cap <= 0 ? 0 : ThreadLocalRandom.current().nextLong(cap + 1);
+    }
+
+    private boolean isIOException(Throwable e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof IOException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted during retry backoff", e);
+        }
+    }
+}
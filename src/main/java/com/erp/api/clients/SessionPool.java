@@ -0,0 +1,94 @@
+package com.erp.api.clients;
+
+import com.erp.enums.UserRole;
+import com.erp.utils.config.ConfigProvider;
+import com.erp.utils.metrics.ClientMetrics;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 🎱 Pool of independent server-side sessions per role (auth.session.pool.size)
+ * <p>
+ * One HTTP session per role serializes parallel requests of that role on the backend's session lock.
+ * With a pool every request leases the least busy slot (ties are broken round-robin) and uses that
+ * slot's session from AuthService, which logs in, caches and refreshes every slot on its own.
+ * <p>
+ * Stats in ClientMetrics: api.session.pool.busy - requests already in flight on the leased slot
+ */
+public class SessionPool {
+
+    private static final Lease NO_SESSION = new Lease(0, null);
+
+    private static volatile SessionPool sharedInstance;
+
+    private final int size;
+    private final Map<UserRole, Slots> roles = new EnumMap<>(UserRole.class);
+
+    public SessionPool(int size) {
+        this.size = Math.max(1, size);
+        for (UserRole role : UserRole.values()) {
+            roles.put(role, new Slots(this.size));
+        }
+    }
+
+    public static SessionPool shared() {
+        if (sharedInstance == null) {
+            synchronized (SessionPool.class) {
+                if (sharedInstance == null) {
+                    sharedInstance = new SessionPool(ConfigProvider.getConfig().authSessionPoolSize());
+                }
+            }
+        }
+        return sharedInstance;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Слот з найменшою кількістю запитів у польоті; звільняється через {@link Lease#close()}
+     */
+    public Lease acquire(UserRole role) {
+        if (size == 1 || role == UserRole.ANONYMOUS) {
+            return NO_SESSION;
+        }
+        Slots slots = roles.get(role);
+        // Старт обходу зсувається - при рівному навантаженні слоти беруться по колу
+        int start = Math.floorMod(slots.next.getAndIncrement(), size);
+        int best = start;
+        for (int i = 1; i < size; i++) {
+            int slot = (start + i) % size;
+            if (slots.busy[slot].get() < slots.busy[best].get()) {
+                best = slot;
+            }
+        }
+        ClientMetrics.record("api.session.pool.busy", slots.busy[best].getAndIncrement());
+        return new Lease(best, slots.busy[best]);
+    }
+
+    // ==================== Inner Types ====================
+
+    public record Lease(int slot, AtomicInteger busy) implements AutoCloseable {
+        @Override
+        public void close() {
+            if (busy != null) {
+                busy.decrementAndGet();
+            }
+        }
+    }
+
+    private static class Slots {
+        private final AtomicInteger next = new AtomicInteger();
+        private final AtomicInteger[] busy;
+
+        Slots(int size) {
+            this.busy = new AtomicInteger[size];
+            for (int i = 0; i < size; i++) {
+                busy[i] = new AtomicInteger();
+            }
+        }
+    }
+}
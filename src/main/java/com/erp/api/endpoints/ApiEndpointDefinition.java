@@ -19,6 +19,7 @@ import java.util.Optional;
  * - Request/Response class mapping with full generic support
  * - Schema validation
  * - Operation discriminator for duplicate paths
+ * - Per-endpoint execution policy (see {@link EndpointPolicy})
  * <p>
  * Uses TypeReference for type-safe generic handling
  */
@@ -36,7 +37,10 @@ public enum ApiEndpointDefinition {
             "Get all resources - ",
             null,  // no request body
             new TypeReference<List<ResourceResponse>>() {},  // ✅ Type-safe List
-            null
+            null,
+            EndpointPolicy.builder()
+                    .cacheable(true)  // довідник - рідко змінюється під час прогону
+                    .build()
     ),
 
     RESOURCE_CREATE(
@@ -79,7 +83,10 @@ public enum ApiEndpointDefinition {
             "Get all measurement units",
             null,
             new TypeReference<List<MeasurementUnitResponse>>() {},
-            null
+            null,
+            EndpointPolicy.builder()
+                    .cacheable(true)  // довідник - рідко змінюється під час прогону
+                    .build()
     ),
 
     MEASUREMENT_UNIT_POST_CREATE(
@@ -114,7 +121,10 @@ public enum ApiEndpointDefinition {
             "Get all technological maps",
             null,
             new TypeReference<List<TechnologicalMapResponse>>() {},  // ✅ Type-safe List
-            null
+            null,
+            EndpointPolicy.builder()
+                    .hedged(true)  // довгий хвіст латентності на staging
+                    .build()
     ),
 
     TECH_MAP_CREATE(
@@ -148,7 +158,10 @@ public enum ApiEndpointDefinition {
             "Get all storages",
             null,
             new TypeReference<List<StorageResponse>>() {},
-            null
+            null,
+            EndpointPolicy.builder()
+                    .cacheable(true)  // довідник - рідко змінюється під час прогону
+                    .build()
     ),
 
     STORAGE_POST_CREATE(
@@ -182,7 +195,12 @@ public enum ApiEndpointDefinition {
             "Get statistic plan",
             null,
             new TypeReference<PlanStatisticsResponse>() {},
-            null
+            null,
+            EndpointPolicy.builder()
+                    .maxConcurrency(4)  // важкий агрегаційний запит
+                    .hedged(true)
+                    .timeoutMillis(60_000)
+                    .build()
     ),
 
     // ========================================
@@ -278,10 +296,18 @@ public enum ApiEndpointDefinition {
     private final TypeReference<?> requestType;   // ✅ Full generic support
     private final TypeReference<?> responseType;  // ✅ Full generic support
     private final String operation;
+    private final EndpointPolicy policy;
 
     ApiEndpointDefinition(String pathTemplate, Method httpMethod, String schemaPath,
                           String description, TypeReference<?> requestType,
                           TypeReference<?> responseType, String operation) {
+        this(pathTemplate, httpMethod, schemaPath, description, requestType, responseType, operation,
+                EndpointPolicy.DEFAULT);
+    }
+
+    ApiEndpointDefinition(String pathTemplate, Method httpMethod, String schemaPath,
+                          String description, TypeReference<?> requestType,
+                          TypeReference<?> responseType, String operation, EndpointPolicy policy) {
         this.pathTemplate = pathTemplate;
         this.httpMethod = httpMethod;
         this.schemaPath = schemaPath;
@@ -289,6 +315,7 @@ public enum ApiEndpointDefinition {
         this.requestType = requestType;
         this.responseType = responseType;
         this.operation = operation;
+        this.policy = policy != null ? policy : EndpointPolicy.DEFAULT;
     }
 
     // ============================================
@@ -330,6 +357,20 @@ public enum ApiEndpointDefinition {
         return pathTemplate.contains("{");
     }
 
+    /**
+     * Path family - шаблон без query та без /{id} сегментів.
+     * Endpoints однієї сім'ї працюють з тими ж даними:
+     * RESOURCE_GET_ALL, RESOURCE_CREATE, RESOURCE_UPDATE_NAME → "/api/v1/resources"
+     */
+    public String getPathFamily() {
+        String path = pathTemplate;
+        int query = path.indexOf('?');
+        if (query >= 0) {
+            path = path.substring(0, query);
+        }
+        return path.replaceAll("/\\{[^}]*}", "");
+    }
+
     public int getPathVariablesCount() {
         int count = 0;
         String temp = pathTemplate;
@@ -0,0 +1,69 @@
+package com.erp.api.endpoints;
+
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * ⚙️ Execution policy of a single endpoint
+ * <p>
+ * Declared next to the endpoint in {@link ApiEndpointDefinition} and read by ApiExecutor.
+ * Zero values mean "use the global default from TestConfig".
+ * <p>
+ * Usage:
+ * <pre>
+ * STATISTIC_GET_PLAN(
+ *         "/api/v1/statistics/plan?storageId={id}",
+ *         Method.GET,
+ *         ...,
+ *         EndpointPolicy.builder().maxConcurrency(4).build()
+ * )
+ * </pre>
+ */
+@Getter
+@Builder(toBuilder = true)
+public class EndpointPolicy {
+
+    public static final EndpointPolicy DEFAULT = EndpointPolicy.builder().build();
+
+    /**
+     * Max in-flight requests to this endpoint (0 = api.max.concurrent.requests.per.endpoint)
+     */
+    @Builder.Default
+    private final int maxConcurrency = 0;
+
+    /**
+     * Дедлайн запиту разом з повторами, мс (0 = api.timeout)
+     */
+    @Builder.Default
+    private final long timeoutMillis = 0;
+
+    /**
+     * Ліміт запитів на секунду для кожної ролі окремо (0 = без ліміту)
+     */
+    @Builder.Default
+    private final double ratePerSecond = 0;
+
+    /**
+     * Скільки запитів можна відправити пачкою понад ratePerSecond (0 = ratePerSecond)
+     */
+    @Builder.Default
+    private final int burst = 0;
+
+    /**
+     * GET відповідь можна брати з ResponseCache (працює тільки при api.cache.enabled=true)
+     */
+    @Builder.Default
+    private final boolean cacheable = false;
+
+    /**
+     * Ідемпотентний GET, який можна дублювати при повільній відповіді (працює тільки при api.hedge.enabled=true)
+     */
+    @Builder.Default
+    private final boolean hedged = false;
+
+    /**
+     * Повтори при тимчасових помилках (GET / HEAD / OPTIONS; PUT / DELETE - тільки з RetryPolicy.retryIdempotentWrites)
+     */
+    @Builder.Default
+    private final RetryPolicy retry = RetryPolicy.DEFAULT;
+}
@@ -0,0 +1,107 @@
+package com.erp.api.endpoints;
+
+import io.restassured.http.Method;
+import lombok.Builder;
+import lombok.Getter;
+import org.apache.http.conn.ConnectTimeoutException;
+import org.apache.http.conn.ConnectionPoolTimeoutException;
+
+import java.net.ConnectException;
+import java.net.NoRouteToHostException;
+import java.net.UnknownHostException;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * 🔁 Retry policy of a single endpoint
+ * <p>
+ * Part of {@link EndpointPolicy}. By default only safe methods (GET / HEAD / OPTIONS) are retried.
+ * PUT / DELETE are retried only when the endpoint opts in with {@code retryIdempotentWrites}, and even then
+ * only on connect-phase failures, when the request provably never reached the server.
+ * POST / PATCH are never retried. Zero values mean "use the global default from TestConfig" (api.retry.*).
+ * <p>
+ * Usage:
+ * <pre>
+ * EndpointPolicy.builder()
+ *         .retry(RetryPolicy.builder().maxAttempts(5).retryIdempotentWrites(true).build())
+ *         .build()
+ * </pre>
+ */
+@Getter
+@Builder(toBuilder = true)
+public class RetryPolicy {
+
+    public static final RetryPolicy DEFAULT = RetryPolicy.builder().build();
+    public static final RetryPolicy NONE = RetryPolicy.builder().maxAttempts(1).build();
+
+    private static final Set<Method> SAFE_METHODS = EnumSet.of(Method.GET, Method.HEAD, Method.OPTIONS);
+    private static final Set<Method> IDEMPOTENT_WRITE_METHODS = EnumSet.of(Method.PUT, Method.DELETE);
+
+    /**
+     * Загальна кількість спроб, включно з першою (0 = api.retry.max.attempts)
+     */
+    @Builder.Default
+    private final int maxAttempts = 0;
+
+    /**
+     * База експоненційного backoff (0 = api.retry.initial.backoff.ms)
+     */
+    @Builder.Default
+    private final long initialBackoffMillis = 0;
+
+    /**
+     * Верхня межа одного backoff (0 = api.retry.max.backoff.ms)
+     */
+    @Builder.Default
+    private final long maxBackoffMillis = 0;
+
+    /**
+     * Бюджет часу на всі спроби (0 = api.retry.max.elapsed.ms)
+     */
+    @Builder.Default
+    private final long maxElapsedMillis = 0;
+
+    /**
+     * Статуси, які вважаються тимчасовими
+     */
+    @Builder.Default
+    private final Set<Integer> retryableStatuses = Set.of(502, 503, 504);
+
+    /**
+     * Повторювати при IOException (connection reset, timeout тощо) - тільки для безпечних методів
+     */
+    @Builder.Default
+    private final boolean retryOnIOException = true;
+
+    /**
+     * Дозволити повтори PUT / DELETE - лише при помилці встановлення з'єднання (запит не був відправлений)
+     */
+    @Builder.Default
+    private final boolean retryIdempotentWrites = false;
+
+    public static boolean isSafe(Method method) {
+        return SAFE_METHODS.contains(method);
+    }
+
+    /**
+     * Чи можна взагалі повторювати запити цим методом за цією політикою
+     */
+    public boolean isRetryable(Method method) {
+        return isSafe(method) || (retryIdempotentWrites && IDEMPOTENT_WRITE_METHODS.contains(method));
+    }
+
+    /**
+     * Помилка до відправки запиту: з'єднання не встановлено або не отримано з пулу
+     * (read timeout / connection reset сюди не входять - запит міг бути застосований)
+     */
+    public static boolean isConnectFailure(Throwable error) {
+        for (Throwable t = error; t != null; t = t.getCause()) {
+            if (t instanceof ConnectException || t instanceof ConnectTimeoutException
+                    || t instanceof ConnectionPoolTimeoutException || t instanceof UnknownHostException
+                    || t instanceof NoRouteToHostException) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
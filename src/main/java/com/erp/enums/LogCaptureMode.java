@@ -0,0 +1,16 @@
+package com.erp.enums;
+
+/**
+ * Як логуються HTTP запити/відповіді (logging.capture.mode)
+ */
+public enum LogCaptureMode {
+    /**
+     * Кожен обмін логується в консоль та прикріплюється в Allure (поведінка за замовчуванням)
+     */
+    ALWAYS,
+
+    /**
+     * Останні N обмінів тримаються в пам'яті потоку і виводяться тільки при падінні
+     */
+    ON_FAILURE
+}
@@ -0,0 +1,21 @@
+package com.erp.enums;
+
+/**
+ * Запис / відтворення HTTP обмінів ApiExecutor (api.recorder.mode)
+ */
+public enum RecorderMode {
+    /**
+     * Запити йдуть на бекенд, нічого не записується (поведінка за замовчуванням)
+     */
+    OFF,
+
+    /**
+     * Запити йдуть на бекенд, кожен обмін дописується в api.recorder.file
+     */
+    RECORD,
+
+    /**
+     * Відповіді беруться з api.recorder.file - без бекенду та логіну
+     */
+    REPLAY
+}
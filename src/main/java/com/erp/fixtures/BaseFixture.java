@@ -1,6 +1,7 @@
 package com.erp.fixtures;
 
 import com.erp.api.clients.ApiExecutor;
+import com.erp.api.clients.ExchangeCaptureFilter;
 import com.erp.api.endpoints.ApiEndpointDefinition;
 import com.erp.data.FakerProvider;
 import com.erp.data.RequestBodyFactory;
@@ -13,6 +14,7 @@ import com.erp.models.request.TechnologicalMapRequest;
 import com.erp.models.response.*;
 import com.erp.test_context.ContextKey;
 import com.erp.test_context.TestContext;
+import com.erp.utils.ResponseDeserializer;
 import io.qameta.allure.Step;
 import io.restassured.response.Response;
 import lombok.NonNull;
@@ -22,6 +24,7 @@ import org.checkerframework.checker.index.qual.NonNegative;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Collectors;
 
 @Slf4j
 @RequiredArgsConstructor
@@ -85,10 +88,11 @@ public abstract class BaseFixture {
         ApiEndpointDefinition getEndpoint = ApiEndpointDefinition.RESOURCE_GET_ALL;
         Response response = apiExecutor.execute(getEndpoint, UserRole.ADMIN);
 
-        // Гарантуємо, що список можна змінювати (ArrayList)
-        List<ResourceResponse> allResources = new ArrayList<>(
-                response.jsonPath().getList("", ResourceResponse.class)
-        );
+        // Гарантуємо, що список можна змінювати (ArrayList).
+        // Потрібні тільки перші length елементів - решта масиву не десеріалізується
+        List<ResourceResponse> allResources = ResponseDeserializer.stream(response, ResourceResponse.class)
+                .limit(length)
+                .collect(Collectors.toCollection(ArrayList::new));
 
         if (allResources.size() < length) {
             int currentSize = allResources.size();
@@ -120,9 +124,9 @@ public abstract class BaseFixture {
         Response response = apiExecutor.execute(getEndpoint, userRole, userRole.getStoreId());
 
         // Гарантуємо, що список можна змінювати (ArrayList)
-        List<ProductionResponse> allProductions = new ArrayList<>(
-                response.jsonPath().getList("", ProductionResponse.class)
-        );
+        List<ProductionResponse> allProductions = ResponseDeserializer.stream(response, ProductionResponse.class)
+                .limit(length)
+                .collect(Collectors.toCollection(ArrayList::new));
 
         if (allProductions.size() < length) {
             int currentSize = allProductions.size();
@@ -205,10 +209,9 @@ public abstract class BaseFixture {
 
         // БЕЗПЕЧНИЙ ПАРСИНГ: перевіряємо статус ПЕРЕД jsonPath()
         if (response.statusCode() == 200) {
-            List<PlanResponse> parsed = response.jsonPath().getList("", PlanResponse.class);
-            if (parsed != null) {
-                allPlans.addAll(parsed);
-            }
+            ResponseDeserializer.stream(response, PlanResponse.class)
+                    .limit(length)
+                    .forEach(allPlans::add);
         } else {
             log.warn("Could not fetch existing plans, status: {}. Proceeding with empty list.", response.statusCode());
         }
@@ -245,6 +248,7 @@ public abstract class BaseFixture {
         if (response.statusCode() < 200 || response.statusCode() >= 300) {
             log.error("ERROR {} failed! Status: {}. Body: {}", action,
                     response.statusCode(), response.body().asString());
+            ExchangeCaptureFilter.flush("❌ " + action + " failed");
             throw new RuntimeException("Fixture setup critical failure: " + action);
         }
         log.info("✅ {} successful (Status: {})", action, response.statusCode());
@@ -8,6 +8,7 @@ import com.erp.models.request.StorageRequest;
 import com.erp.models.response.StorageResponse;
 import com.erp.test_context.ContextKey;
 import com.erp.test_context.TestContext;
+import com.erp.utils.ResponseDeserializer;
 import io.qameta.allure.Step;
 import io.restassured.response.Response;
 import lombok.extern.slf4j.Slf4j;
@@ -55,7 +56,7 @@ public class StorageFixture extends BaseFixture {
      * Гарантує наявність щонайменше {count} складів у системі.
      * Перевіряє існуючі записи в базі і створює нові лише за потреби.
      * * @param count Бажана кількість складів.
-     * @return Повний список складів (існуючі + новостворені).
+     * @return Перші {count} складів (існуючі + новостворені).
      */
     @Step("FIXTURE: Забезпечення наявності списку складів (мінімум {count})")
     public List<StorageResponse> setupSharedStorageList(int count) {
@@ -65,10 +66,10 @@ public class StorageFixture extends BaseFixture {
         // Ініціалізуємо список, який можна змінювати
         List<StorageResponse> allStorages = new ArrayList<>();
         if (response.statusCode() == 200) {
-            List<StorageResponse> existing = response.jsonPath().getList("", StorageResponse.class);
-            if (existing != null) {
-                allStorages.addAll(existing);
-            }
+            // Потрібні тільки перші count складів - решта масиву не десеріалізується
+            ResponseDeserializer.stream(response, StorageResponse.class)
+                    .limit(count)
+                    .forEach(allStorages::add);
         }
 
         // 2. Якщо в базі менше складів, ніж нам потрібно — створюємо відсутні
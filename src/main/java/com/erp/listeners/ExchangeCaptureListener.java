@@ -0,0 +1,34 @@
+package com.erp.listeners;
+
+import com.erp.api.clients.ExchangeCaptureFilter;
+import org.testng.IInvokedMethod;
+import org.testng.IInvokedMethodListener;
+import org.testng.ITestResult;
+
+/**
+ * 📼 Скидає буфер ExchangeCaptureFilter при падінні тесту або конфігураційного методу
+ * <p>
+ * Працює тільки при logging.capture.mode=ON_FAILURE.
+ * Використовує afterInvocation, щоб Allure test case ще був відкритий для вкладень.
+ */
+public class ExchangeCaptureListener implements IInvokedMethodListener {
+
+    @Override
+    public void beforeInvocation(IInvokedMethod method, ITestResult testResult) {
+        if (ExchangeCaptureFilter.isEnabled() && method.isTestMethod()) {
+            ExchangeCaptureFilter.clear();
+        }
+    }
+
+    @Override
+    public void afterInvocation(IInvokedMethod method, ITestResult testResult) {
+        if (!ExchangeCaptureFilter.isEnabled()) {
+            return;
+        }
+        if (testResult.getStatus() == ITestResult.FAILURE) {
+            ExchangeCaptureFilter.flush("❌ " + method.getTestMethod().getMethodName() + " failed");
+        } else {
+            ExchangeCaptureFilter.clear();
+        }
+    }
+}
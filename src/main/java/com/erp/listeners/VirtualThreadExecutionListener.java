@@ -0,0 +1,93 @@
+package com.erp.listeners;
+
+import com.erp.api.clients.ExchangeCaptureFilter;
+import com.erp.utils.config.ConfigProvider;
+import lombok.extern.slf4j.Slf4j;
+import org.testng.IAlterSuiteListener;
+import org.testng.IAnnotationTransformer;
+import org.testng.IExecutionListener;
+import org.testng.IHookCallBack;
+import org.testng.IHookable;
+import org.testng.ITestResult;
+import org.testng.annotations.IDataProviderAnnotation;
+import org.testng.xml.XmlSuite;
+
+import java.lang.reflect.Method;
+import java.util.List;
+
+/**
+ * 🧵 Opt-in virtual-thread execution mode (execution.virtual.threads=true)
+ * <p>
+ * When enabled:
+ * - every @DataProvider becomes parallel
+ * - data-provider-thread-count is raised to execution.virtual.dataprovider.parallelism
+ * - every test method body runs on its own Java 21 virtual thread (IHookable); the TestNG worker
+ *   only parks until it finishes, so blocking I/O of the test never pins a platform thread
+ * - TestNG pools themselves run on virtual threads only when TestNG is started with
+ *   -threadpoolfactoryclass {@link VirtualThreadExecutorServiceFactory} (Surefire does not forward it)
+ * <p>
+ * Exchanges captured by ExchangeCaptureFilter on the virtual thread land in the worker's buffer,
+ * so ExchangeCaptureListener still flushes them on failure. Allure and Reporter state is inherited.
+ * <p>
+ * Pool sizes requested by TestNG are still honoured (thread-count for classes stays as in the suite XML),
+ * and ApiExecutor's ConcurrencyLimiter caps the number of requests that actually reach the backend.
+ * <p>
+ * Register in suite XML (a no-op while the mode is off):
+ * <pre>
+ * &lt;listener class-name="com.erp.listeners.VirtualThreadExecutionListener"/&gt;
+ * </pre>
+ */
+@Slf4j
+public class VirtualThreadExecutionListener
+        implements IExecutionListener, IAlterSuiteListener, IAnnotationTransformer, IHookable {
+
+    @Override
+    public void onExecutionStart() {
+        if (isVirtualThreadsMode()) {
+            log.info("🧵 Virtual threads mode enabled");
+        }
+    }
+
+    @Override
+    public void alter(List<XmlSuite> suites) {
+        if (!isVirtualThreadsMode()) {
+            return;
+        }
+        int parallelism = ConfigProvider.getConfig().virtualDataProviderParallelism();
+        for (XmlSuite suite : suites) {
+            suite.setDataProviderThreadCount(parallelism);
+        }
+        log.info("🧵 Data provider parallelism set to {}", parallelism);
+    }
+
+    @Override
+    public void transform(IDataProviderAnnotation annotation, Method method) {
+        if (isVirtualThreadsMode()) {
+            annotation.setParallel(true);
+        }
+    }
+
+    @Override
+    public void run(IHookCallBack callBack, ITestResult testResult) {
+        if (!isVirtualThreadsMode()) {
+            callBack.runTestMethod(testResult);
+            return;
+        }
+        // Помилки тесту TestNG кладе в testResult, тому тут лише чекаємо завершення
+        Runnable body = ExchangeCaptureFilter.sharingBuffer(() -> callBack.runTestMethod(testResult));
+        Thread thread = Thread.ofVirtual()
+                .name("test-vt-" + testResult.getMethod().getMethodName())
+                .start(body);
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            // Таймаут TestNG (@Test(timeOut)) перериває worker - передаємо переривання тілу тесту
+            thread.interrupt();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static boolean isVirtualThreadsMode() {
+        return ConfigProvider.getConfig().virtualThreadsEnabled();
+    }
+}
@@ -0,0 +1,100 @@
+package com.erp.listeners;
+
+import com.erp.utils.config.ConfigProvider;
+import lombok.extern.slf4j.Slf4j;
+import org.testng.IExecutorServiceFactory;
+
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 🧵 TestNG executor factory that runs test / data-provider pools on Java 21 virtual threads
+ * (execution.virtual.threads=true; otherwise a regular platform thread pool, as TestNG's default)
+ * <p>
+ * The pool size requested by TestNG is kept as the parallelism limit. Registered through TestNG's own option:
+ * <pre>
+ * java -cp ... org.testng.TestNG -threadpoolfactoryclass com.erp.listeners.VirtualThreadExecutorServiceFactory suite.xml
+ * </pre>
+ * Surefire does not forward -threadpoolfactoryclass; under mvn test {@link VirtualThreadExecutionListener}
+ * still moves every test method body onto a virtual thread.
+ */
+@Slf4j
+public class VirtualThreadExecutorServiceFactory implements IExecutorServiceFactory {
+
+    @Override
+    public ExecutorService create(int corePoolSize, int maximumPoolSize, long keepAliveTime,
+                                  TimeUnit unit, BlockingQueue<Runnable> workQueue,
+                                  ThreadFactory threadFactory) {
+        if (!ConfigProvider.getConfig().virtualThreadsEnabled()) {
+            return new ThreadPoolExecutor(corePoolSize, maximumPoolSize, keepAliveTime, unit, workQueue, threadFactory);
+        }
+        log.debug("🧵 TestNG pool of {} on virtual threads", maximumPoolSize);
+        return new BoundedVirtualThreadExecutor(Math.max(1, maximumPoolSize));
+    }
+
+    // ==================== Inner Classes ====================
+
+    /**
+     * Thread-per-task executor на virtual threads, який пропускає не більше N задач одночасно
+     */
+    static class BoundedVirtualThreadExecutor extends AbstractExecutorService {
+
+        private final ExecutorService delegate = Executors.newThreadPerTaskExecutor(
+                Thread.ofVirtual().name("testng-vt-", 0).factory());
+        private final Semaphore permits;
+
+        BoundedVirtualThreadExecutor(int parallelism) {
+            this.permits = new Semaphore(parallelism);
+        }
+
+        @Override
+        public void execute(Runnable command) {
+            // Дозвіл береться до старту потоку, щоб кількість створених virtual threads теж була обмежена
+            permits.acquireUninterruptibly();
+            try {
+                delegate.execute(() -> {
+                    try {
+                        command.run();
+                    } finally {
+                        permits.release();
+                    }
+                });
+            } catch (RuntimeException e) {
+                permits.release();
+                throw e;
+            }
+        }
+
+        @Override
+        public void shutdown() {
+            delegate.shutdown();
+        }
+
+        @Override
+        public List<Runnable> shutdownNow() {
+            return delegate.shutdownNow();
+        }
+
+        @Override
+        public boolean isShutdown() {
+            return delegate.isShutdown();
+        }
+
+        @Override
+        public boolean isTerminated() {
+            return delegate.isTerminated();
+        }
+
+        @Override
+        public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+            return delegate.awaitTermination(timeout, unit);
+        }
+    }
+}
@@ -1,18 +1,21 @@
 package com.erp.utils;
 
+import com.erp.api.clients.BufferedResponse;
 import com.erp.api.endpoints.ApiEndpointDefinition;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import io.restassured.response.Response;
 
 import java.util.List;
+import java.util.Optional;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
 
 /**
  * 🔧 Response deserializer with full generic support
+ * <p>
+ * Works on the shared {@link BufferedResponse} tree - the body is parsed once per response.
  */
 public class ResponseDeserializer {
 
-    private static final ObjectMapper objectMapper = new ObjectMapper();
-
     /**
      * ✅ Deserialize response based on endpoint definition
      * <p>
@@ -23,13 +26,13 @@ public class ResponseDeserializer {
      */
     @SuppressWarnings("unchecked")
     public static <T> T deserialize(Response response, ApiEndpointDefinition endpoint) {
+        BufferedResponse body = BufferedResponse.of(response);
         if (endpoint.isCollectionResponse()) {
-            // For collections, use RestAssured's built-in support
             Class<?> elementType = endpoint.getResponseElementType();
-            return (T) response.jsonPath().getList("", elementType);
+            return (T) body.asList(elementType);
         } else {
             // For single objects
-            return (T) response.as(endpoint.getResponseClass());
+            return (T) body.as(endpoint.getResponseClass());
         }
     }
 
@@ -37,7 +40,36 @@ public class ResponseDeserializer {
      * ✅ Type-safe collection deserialization
      */
     public static <T> List<T> deserializeList(Response response, Class<T> elementClass) {
-        return response.jsonPath().getList("", elementClass);
+        return BufferedResponse.of(response).asList(elementClass);
+    }
+
+    /**
+     * ✅ Lazy iteration over a JSON array (GET_ALL) - elements are parsed one by one,
+     * stops as soon as the stream does (findFirst, limit, anyMatch)
+     */
+    public static <T> Stream<T> stream(Response response, Class<T> elementClass) {
+        return BufferedResponse.of(response).stream(elementClass);
+    }
+
+    /**
+     * ✅ First element of a JSON array without reading the rest
+     */
+    public static <T> Optional<T> first(Response response, Class<T> elementClass) {
+        return stream(response, elementClass).findFirst();
+    }
+
+    /**
+     * ✅ Number of elements in a JSON array - nothing is deserialized
+     */
+    public static long count(Response response) {
+        return BufferedResponse.of(response).count();
+    }
+
+    /**
+     * ✅ Number of elements matching the filter - one element in memory at a time
+     */
+    public static <T> long count(Response response, Class<T> elementClass, Predicate<T> filter) {
+        return stream(response, elementClass).filter(filter).count();
     }
 
     /**
@@ -45,9 +77,7 @@ public class ResponseDeserializer {
      */
     public static <T> T deserializeAdvanced(Response response, ApiEndpointDefinition endpoint) {
         try {
-            String json = response.asString();
-            return objectMapper.readValue(json,
-                    objectMapper.constructType(endpoint.getResponseFullType()));
+            return BufferedResponse.of(response).as(endpoint.getResponseFullType());
         } catch (Exception e) {
             throw new RuntimeException("Failed to deserialize response for " + endpoint, e);
         }
@@ -0,0 +1,77 @@
+package com.erp.utils;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * 🛬 Single-flight: concurrent calls with the same key share one execution
+ * <p>
+ * The first caller (leader) runs the action; callers arriving while it is in flight
+ * wait for and receive the same result (or exception). Nothing is cached after completion.
+ * <p>
+ * Usage:
+ * <pre>
+ * SingleFlight&lt;String, Response&gt; inFlight = new SingleFlight&lt;&gt;();
+ * Response response = inFlight.execute("RESOURCE_GET_ALL:ADMIN:/api/v1/resources", () -&gt; send(...));
+ * </pre>
+ */
+public class SingleFlight<K, V> {
+
+    private final Map<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * Виконує дію або приєднується до вже запущеної з тим же ключем
+     */
+    public V execute(K key, Supplier<V> action) {
+        return execute(key, action, null);
+    }
+
+    /**
+     * @param onShared викликається, якщо результат отримано від іншого потоку (для метрик/логів)
+     */
+    public V execute(K key, Supplier<V> action, Runnable onShared) {
+        CompletableFuture<V> mine = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, mine);
+
+        if (existing != null) {
+            if (onShared != null) {
+                onShared.run();
+            }
+            return await(existing);
+        }
+
+        try {
+            V value = action.get();
+            mine.complete(value);
+            return value;
+        } catch (Throwable e) {
+            // Throwable: RestAssured кидає IOException без декларації - очікувачі не повинні зависнути
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    public int inFlightCount() {
+        return inFlight.size();
+    }
+
+    private V await(CompletableFuture<V> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+}
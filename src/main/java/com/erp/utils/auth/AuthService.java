@@ -1,17 +1,41 @@
 package com.erp.utils.auth;
 
-import com.auth0.jwt.JWT;
 import com.auth0.jwt.interfaces.DecodedJWT;
+import com.erp.api.clients.CircuitBreaker;
 import com.erp.enums.UserRole;
+import com.erp.utils.SingleFlight;
 import com.erp.utils.config.ConfigProvider;
+import com.erp.utils.metrics.ClientMetrics;
 import io.qameta.allure.Step;
 import io.restassured.RestAssured;
+import io.restassured.path.json.JsonPath;
 import io.restassured.response.Response;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.core.Authentication;
 
 import java.util.*;
-
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 🔐 Keycloak tokens and browser sessions for test users
+ * <p>
+ * Caches are concurrent and logins are single-flight per user: parallel test threads asking
+ * for the same user wait for one login instead of starting their own.
+ * Sessions live auth.session.ttl.seconds; a session taken from the cache since its login or last refresh
+ * is re-created in the background auth.session.refresh.ahead.seconds before it expires, so test threads
+ * don't pay login latency mid-run. An unused session is left to expire.
+ * <p>
+ * Access tokens are renewed with the refresh_token grant auth.token.refresh.margin.seconds before exp;
+ * the password grant is only used for the first login and when the refresh token is expired or rejected.
+ * <p>
+ * Metrics in ClientMetrics: auth.login / auth.login.shared / auth.session.hit / auth.session.refresh(.failed),
+ * auth.token.request (password grant), auth.token.refresh(.failed),
+ * auth.login.wait.micros (time a test thread was blocked by a login), auth.store.restored / auth.store.evicted
+ * <p>
+ * With auth.store.enabled=true sessions and tokens are kept between runs in {@link SessionStore}.
+ */
 @Slf4j
 public class AuthService {
 
@@ -21,8 +45,26 @@ public class AuthService {
     private final String clientId;
     private final String clientSecret;
 
-    private final Map<String, TokenInfo> tokenCache = new HashMap<>();
-    private final Map<String, SessionInfo> sessionCache = new HashMap<>();
+    private final long sessionTtlMillis;
+    private final long refreshAheadMillis;
+    private final long tokenRefreshMarginMillis;
+    private final int sessionPoolSize;
+
+    private final Map<String, TokenInfo> tokenCache = new ConcurrentHashMap<>();
+    private final Map<String, SessionInfo> sessionCache = new ConcurrentHashMap<>();
+
+    // Один логін на користувача одночасно (ключ - cacheKey)
+    private final SingleFlight<String, String> tokenRequests = new SingleFlight<>();
+    private final SingleFlight<String, SessionInfo> sessionLogins = new SingleFlight<>();
+
+    // Фонове оновлення сесій до закінчення TTL
+    private final ScheduledThreadPoolExecutor sessionRefresher;
+
+    // Сесії та токени між прогонами (null - auth.store.enabled=false); ключ - середовище + користувач
+    private final SessionStore store;
+    private final String storeScope;
+    // Останні відхилені відновлені сесії - потоки з тією ж відповіддю 401 (спільний GET) теж повторюють запит
+    private final Map<String, Map<String, String>> rejectedSessions = new ConcurrentHashMap<>();
 
     public AuthService(String baseUrl) {
         this.baseUrl = baseUrl;
@@ -30,6 +72,20 @@ public class AuthService {
         this.realm = ConfigProvider.getKeycloakRealm();
         this.clientId = ConfigProvider.getKeycloakClientId();
         this.clientSecret = ConfigProvider.getKeycloakClientSecret();
+        this.sessionTtlMillis = TimeUnit.SECONDS.toMillis(ConfigProvider.getConfig().authSessionTtlSeconds());
+        this.refreshAheadMillis = TimeUnit.SECONDS.toMillis(ConfigProvider.getConfig().authSessionRefreshAheadSeconds());
+        this.tokenRefreshMarginMillis = TimeUnit.SECONDS.toMillis(ConfigProvider.getConfig().authTokenRefreshMarginSeconds());
+        this.sessionPoolSize = Math.max(1, ConfigProvider.getConfig().authSessionPoolSize());
+
+        this.sessionRefresher = new ScheduledThreadPoolExecutor(1, r -> {
+            Thread thread = new Thread(r, "auth-session-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.sessionRefresher.setRemoveOnCancelPolicy(true);
+
+        this.store = SessionStore.isEnabled() ? SessionStore.shared() : null;
+        this.storeScope = String.join("|", System.getProperty("env", "debug"), baseUrl, keycloakUrl, realm) + "|";
 
         log.info("🔐 AuthService initialized");
         log.debug("   Keycloak URL: {}", keycloakUrl);
@@ -42,25 +98,152 @@ public class AuthService {
         String cacheKey = username + ":" + password;
 
         // Перевіряємо кеш
-        if (tokenCache.containsKey(cacheKey)) {
-            TokenInfo tokenInfo = tokenCache.get(cacheKey);
-            if (!isTokenExpired(tokenInfo.token)) {
-                log.debug("✅ Using cached token for user: {}", username);
-                return tokenInfo.token;
-            } else {
-                log.debug("🔄 Cached token expired for user: {}", username);
-                tokenCache.remove(cacheKey);
+        String cached = cachedToken(cacheKey, username);
+        if (cached != null) {
+            return cached;
+        }
+
+        // Запитуємо новий токен (паралельні запити того ж користувача чекають на один)
+        return tokenRequests.execute(cacheKey, () -> {
+            String token = cachedToken(cacheKey, username);
+            if (token != null) {
+                return token;
+            }
+
+            // Спершу refresh_token, password grant - тільки як запасний варіант
+            TokenInfo tokenInfo = refreshToken(username, tokenCache.get(cacheKey));
+            if (tokenInfo == null) {
+                log.info("🔑 Requesting new token for user: {}", username);
+                ClientMetrics.increment("auth.token.request");
+                tokenInfo = CircuitBreaker.auth().call(() -> requestToken(username, Map.of(
+                        "grant_type", "password",
+                        "username", username,
+                        "password", password)));
+            }
+
+            // Зберігаємо в кеш
+            tokenCache.put(cacheKey, tokenInfo);
+            if (store != null) {
+                store.putToken(storeScope + username, new SessionStore.StoredToken(tokenInfo.token,
+                        tokenInfo.refreshToken, tokenInfo.refreshExpiresAt, tokenInfo.timestamp));
             }
+            return tokenInfo.token;
+        });
+    }
+
+    /**
+     * Оновлення через refresh_token grant; null - refresh token відсутній, протермінований або відхилений
+     */
+    private TokenInfo refreshToken(String username, TokenInfo previous) {
+        if (previous == null || !previous.canRefresh()) {
+            return null;
         }
+        try {
+            log.info("🔄 Refreshing token for user: {}", username);
+            TokenInfo tokenInfo = CircuitBreaker.auth().call(() -> requestToken(username, Map.of(
+                    "grant_type", "refresh_token",
+                    "refresh_token", previous.refreshToken)));
+            ClientMetrics.increment("auth.token.refresh");
+            return tokenInfo;
+        } catch (Exception e) {
+            // Наприклад, сесію в Keycloak завершено (invalid_grant) - логінимось паролем
+            ClientMetrics.increment("auth.token.refresh.failed");
+            log.warn("⚠️ Token refresh failed for {}, falling back to password grant: {}", username, e.getMessage());
+            return null;
+        }
+    }
 
-        // Запитуємо новий токен
-        log.info("🔑 Requesting new token for user: {}", username);
-        String token = requestToken(username, password);
+    private String cachedToken(String cacheKey, String username) {
+        TokenInfo tokenInfo = tokenCache.get(cacheKey);
+        if (tokenInfo == null) {
+            tokenInfo = restoreToken(cacheKey, username);
+        }
+        if (tokenInfo == null) {
+            return null;
+        }
+        if (!isTokenExpired(tokenInfo.token)) {
+            log.debug("✅ Using cached token for user: {}", username);
+            return tokenInfo.token;
+        }
+        // Запис лишається в кеші - його refresh token використовується для оновлення
+        log.debug("🔄 Cached token expires soon for user: {}", username);
+        return null;
+    }
 
-        // Зберігаємо в кеш
-        tokenCache.put(cacheKey, new TokenInfo(token, System.currentTimeMillis()));
+    // ==================== Persistent Store ====================
 
-        return token;
+    /**
+     * Токен попереднього прогону: годиться, якщо access token ще живий або refresh token не протермінований
+     */
+    private TokenInfo restoreToken(String cacheKey, String username) {
+        SessionStore.StoredToken stored = store != null ? store.token(storeScope + username) : null;
+        if (stored == null) {
+            return null;
+        }
+        TokenInfo tokenInfo = new TokenInfo(stored.accessToken(), stored.refreshToken(),
+                stored.refreshExpiresAt(), stored.createdAt());
+        if (isTokenExpired(tokenInfo.token) && !tokenInfo.canRefresh()) {
+            log.debug("💾 Stored token of {} expired - evicting", username);
+            store.removeToken(storeScope + username);
+            return null;
+        }
+        log.info("💾 Restored token of {} from the previous run", username);
+        ClientMetrics.increment("auth.store.restored");
+        TokenInfo existing = tokenCache.putIfAbsent(cacheKey, tokenInfo);
+        return existing != null ? existing : tokenInfo;
+    }
+
+    /**
+     * Сесія попереднього прогону (ще в межах TTL). Бекенд міг її вже забути -
+     * ApiExecutor повідомляє про 401 через {@link #evictRejectedSession}
+     */
+    private SessionInfo restoreSession(String cacheKey, String username, String password, int slot) {
+        SessionStore.StoredSession stored = store != null ? store.session(storeKey(username, slot)) : null;
+        if (stored == null) {
+            return null;
+        }
+        SessionInfo sessionInfo = new SessionInfo(Collections.unmodifiableMap(new HashMap<>(stored.cookies())),
+                stored.createdAt(), username, password, stored.targetRoute(), slot);
+        if (sessionInfo.isExpired(sessionTtlMillis)) {
+            log.debug("💾 Stored session of {} expired - evicting", username);
+            store.removeSession(storeKey(username, slot));
+            return null;
+        }
+        sessionInfo.restored = true;
+        sessionInfo.lastAccess = System.currentTimeMillis();
+        SessionInfo existing = sessionCache.putIfAbsent(cacheKey, sessionInfo);
+        if (existing != null) {
+            return existing;
+        }
+        log.info("💾 Restored session of {} from the previous run", username);
+        ClientMetrics.increment("auth.store.restored");
+        scheduleRefresh(cacheKey, sessionInfo);
+        return sessionInfo;
+    }
+
+    /**
+     * Бекенд відхилив сесію (401). Якщо це відновлена з диску сесія - вона видаляється
+     * (з кешу і сховища) і наступний запит залогіниться заново.
+     *
+     * @param slot слот пулу сесій (0 - основна сесія)
+     * @return true - сесію видалено, запит варто повторити
+     */
+    public boolean evictRejectedSession(String username, String password, int slot, Map<String, String> cookies) {
+        String cacheKey = sessionKey(username, password, slot);
+        SessionInfo sessionInfo = sessionCache.get(cacheKey);
+        if (sessionInfo != null && sessionInfo.restored && sessionInfo.cookies == cookies) {
+            // Спершу позначка, потім видалення: потік, що вже не бачить сесію в кеші, бачить позначку
+            rejectedSessions.put(cacheKey, cookies);
+            if (sessionCache.remove(cacheKey, sessionInfo)) {
+                log.warn("💾 Stored session of {} was rejected by the backend - logging in again", username);
+                store.removeSession(storeKey(username, slot));
+            }
+        }
+        return rejectedSessions.get(cacheKey) == cookies;
+    }
+
+    private String storeKey(String username, int slot) {
+        return storeScope + username + (slot > 0 ? "#" + slot : "");
     }
 
     // ==================== Session-based Authentication ====================
@@ -79,29 +262,126 @@ public class AuthService {
      */
     @Step("Get session cookies for user: {username}, target: {targetRoute}")
     public Map<String, String> getSessionForUser(String username, String password, String targetRoute) {
-        String cacheKey = username + ":" + password;
+        return new HashMap<>(getSession(username, password, targetRoute, 0));
+    }
+
+    /**
+     * Сесія користувача без Allure кроку (для ApiExecutor - викликається на кожен запит).
+     * Повертає незмінну мапу: той самий екземпляр, доки сесію не оновлено.
+     */
+    public Map<String, String> getSession(String username, String password) {
+        return getSession(username, password, "/", 0);
+    }
+
+    /**
+     * Незалежна серверна сесія користувача зі слоту пулу (auth.session.pool.size).
+     * Слот 0 - та сама сесія, що й {@link #getSession(String, String)}; кожен слот логіниться,
+     * кешується та оновлюється окремо.
+     */
+    public Map<String, String> getSession(String username, String password, int slot) {
+        return getSession(username, password, "/", slot);
+    }
+
+    private Map<String, String> getSession(String username, String password, String targetRoute, int slot) {
+        String cacheKey = sessionKey(username, password, slot);
 
         // Перевіряємо кеш
-        if (sessionCache.containsKey(cacheKey)) {
-            SessionInfo sessionInfo = sessionCache.get(cacheKey);
-            // Перевіряємо чи сесія ще валідна (використовуємо TTL 15 хвилин)
-            if (System.currentTimeMillis() - sessionInfo.timestamp < 900000) { // 15 хвилин
-                log.debug("✅ Using cached session for user: {}", username);
-                return new HashMap<>(sessionInfo.cookies);
-            } else {
-                log.debug("🔄 Cached session expired for user: {}", username);
-                sessionCache.remove(cacheKey);
-            }
+        SessionInfo cached = cachedSession(cacheKey, username, password, slot);
+        if (cached != null) {
+            ClientMetrics.increment("auth.session.hit");
+            return cached.cookies;
+        }
+
+        // Виконуємо новий логін через браузерний flow - один на користувача, решта потоків чекає
+        long start = System.nanoTime();
+        try {
+            return sessionLogins.execute(cacheKey,
+                    () -> {
+                        SessionInfo existing = cachedSession(cacheKey, username, password, slot);
+                        return existing != null
+                                ? existing : login(cacheKey, username, password, targetRoute, slot, start);
+                    },
+                    () -> ClientMetrics.increment("auth.login.shared")
+            ).cookies;
+        } finally {
+            ClientMetrics.record("auth.login.wait.micros", TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start));
         }
+    }
 
-        // Виконуємо новий логін через браузерний flow
-        log.info("🍪 Requesting new session for user: {}", username);
-        Map<String, String> sessionCookies = loginWithRedirectUri(username, password, targetRoute);
+    private static String sessionKey(String username, String password, int slot) {
+        return username + ":" + password + (slot > 0 ? "#" + slot : "");
+    }
+
+    private SessionInfo cachedSession(String cacheKey, String username, String password, int slot) {
+        SessionInfo sessionInfo = sessionCache.get(cacheKey);
+        if (sessionInfo == null) {
+            sessionInfo = restoreSession(cacheKey, username, password, slot);
+        }
+        if (sessionInfo == null) {
+            return null;
+        }
+        if (!sessionInfo.isExpired(sessionTtlMillis)) {
+            log.debug("✅ Using cached session for user: {}", username);
+            sessionInfo.lastAccess = System.currentTimeMillis();
+            return sessionInfo;
+        }
+        log.debug("🔄 Cached session expired for user: {}", username);
+        sessionCache.remove(cacheKey, sessionInfo);
+        return null;
+    }
+
+    private SessionInfo login(String cacheKey, String username, String password, String targetRoute, int slot,
+                              long lastAccess) {
+        log.info("🍪 Requesting new session for user: {}{}", username, slot > 0 ? " (pool slot " + slot + ")" : "");
+        ClientMetrics.increment("auth.login");
+        Map<String, String> sessionCookies = CircuitBreaker.auth().call(
+                () -> loginWithRedirectUri(username, password, targetRoute));
 
         // Зберігаємо в кеш
-        sessionCache.put(cacheKey, new SessionInfo(sessionCookies, System.currentTimeMillis()));
+        SessionInfo sessionInfo = new SessionInfo(Collections.unmodifiableMap(new HashMap<>(sessionCookies)),
+                System.currentTimeMillis(), username, password, targetRoute, slot);
+        sessionInfo.lastAccess = Math.max(sessionInfo.timestamp, lastAccess);
+        sessionCache.put(cacheKey, sessionInfo);
+        scheduleRefresh(cacheKey, sessionInfo);
+        if (store != null) {
+            store.putSession(storeKey(username, slot),
+                    new SessionStore.StoredSession(sessionInfo.cookies, sessionInfo.timestamp, targetRoute));
+        }
+        return sessionInfo;
+    }
 
-        return sessionCookies;
+    /**
+     * Планує фонове оновлення сесії за refreshAhead до кінця TTL
+     */
+    private void scheduleRefresh(String cacheKey, SessionInfo sessionInfo) {
+        long delay = sessionInfo.timestamp + sessionTtlMillis - refreshAheadMillis - System.currentTimeMillis();
+        if (refreshAheadMillis <= 0 || refreshAheadMillis >= sessionTtlMillis) {
+            return;
+        }
+        sessionRefresher.schedule(() -> refreshSession(cacheKey, sessionInfo), delay, TimeUnit.MILLISECONDS);
+    }
+
+    private void refreshSession(String cacheKey, SessionInfo previous) {
+        if (sessionCache.get(cacheKey) != previous) {
+            return; // вже замінена або видалена (clearCache / invalidateSession)
+        }
+        if (previous.lastAccess <= previous.timestamp) {
+            // Сесію не брали з кешу після логіну / попереднього оновлення - нехай спливає
+            log.debug("💤 Session of {} was not used since it was created - letting it expire", previous.username);
+            return;
+        }
+        try {
+            sessionLogins.execute(cacheKey, () -> {
+                log.info("🔄 Refreshing session ahead of expiry for user: {}", previous.username);
+                ClientMetrics.increment("auth.session.refresh");
+                return login(cacheKey, previous.username, previous.password, previous.targetRoute, previous.slot,
+                        previous.lastAccess);
+            });
+        } catch (Exception e) {
+            // Стара сесія ще валідна до кінця TTL; після нього тест залогіниться сам
+            ClientMetrics.increment("auth.session.refresh.failed");
+            log.warn("⚠️ Background session refresh failed for {}: {}", previous.username, e.getMessage());
+        }
     }
 
     @Step("Full browser login flow for user: {username}")
@@ -191,7 +471,10 @@ public class AuthService {
         return sessionCookies;
     }
 
-    private String requestToken(String username, String password) {
+    /**
+     * Token endpoint Keycloak для заданого grant (password / refresh_token)
+     */
+    private TokenInfo requestToken(String username, Map<String, String> grant) {
         String tokenUrl = String.format("%s/realms/%s/protocol/openid-connect/token",
                 keycloakUrl, realm);
 
@@ -199,11 +482,9 @@ public class AuthService {
             Response response = RestAssured
                     .given()
                     .contentType("application/x-www-form-urlencoded")
-                    .formParam("grant_type", "password")
+                    .formParams(grant)
                     .formParam("client_id", clientId)
                     .formParam("client_secret", clientSecret)
-                    .formParam("username", username)
-                    .formParam("password", password)
                     .when()
                     .post(tokenUrl)
                     .then()
@@ -217,10 +498,17 @@ public class AuthService {
                 throw new RuntimeException("Authentication failed: " + response.statusLine());
             }
 
-            String token = response.jsonPath().getString("access_token");
+            JsonPath json = response.jsonPath();
+            String token = json.getString("access_token");
+            String refreshToken = json.getString("refresh_token");
+            // refresh_expires_in = 0 (або відсутній) - refresh token без терміну дії (offline)
+            Number refreshExpiresIn = json.get("refresh_expires_in");
             log.info("✅ Token received for user: {}", username);
 
-            return token;
+            long now = System.currentTimeMillis();
+            long refreshExpiresAt = refreshExpiresIn != null && refreshExpiresIn.longValue() > 0
+                    ? now + TimeUnit.SECONDS.toMillis(refreshExpiresIn.longValue()) : 0;
+            return new TokenInfo(token, refreshToken, refreshExpiresAt, now);
 
         } catch (Exception e) {
             log.error("❌ Error during authentication", e);
@@ -231,11 +519,15 @@ public class AuthService {
     // ==================== JWT Token Analysis ====================
 
     /**
-     * Декодувати JWT token і отримати claims
+     * Декодувати JWT token і отримати claims (декодується один раз - JwtClaimsCache)
      */
     public DecodedJWT decodeToken(String token) {
+        return claims(token).jwt();
+    }
+
+    private JwtClaimsCache.Claims claims(String token) {
         try {
-            return JWT.decode(token);
+            return JwtClaimsCache.get(token);
         } catch (Exception e) {
             log.error("❌ Failed to decode token: {}", e.getMessage());
             throw new RuntimeException("Invalid token", e);
@@ -258,18 +550,14 @@ public class AuthService {
      * Витягти ролі з токена
      */
     public List<String> getRoles(String token) {
-        DecodedJWT jwt = decodeToken(token);
-        List<String> roles = jwt.getClaim("role").asList(String.class);
-        return roles != null ? roles : Collections.emptyList();
+        return claims(token).roles();
     }
 
     /**
      * Витягти permissions з токена
      */
     public List<String> getPermissions(String token) {
-        DecodedJWT jwt = decodeToken(token);
-        List<String> permissions = jwt.getClaim("permissions").asList(String.class);
-        return permissions != null ? permissions : Collections.emptyList();
+        return claims(token).permissions();
     }
 
     /**
@@ -328,19 +616,19 @@ public class AuthService {
         }
 
         try {
-            DecodedJWT jwt = JWT.decode(token);
-            Date expiresAt = jwt.getExpiresAt();
+            // Викликається перед кожним тестом - exp з кешу, без повторного декодування
+            JwtClaimsCache.Claims claims = JwtClaimsCache.get(token);
 
-            if (expiresAt == null) {
+            if (claims.expiresAtMillis() < 0) {
                 log.warn("⚠️  Token has no expiration date");
                 return true;
             }
 
-            // Додаємо buffer 60 секунд
-            boolean expired = expiresAt.getTime() - System.currentTimeMillis() < 60000;
+            // Вважаємо протермінованим за auth.token.refresh.margin.seconds до exp - оновлення заздалегідь
+            boolean expired = claims.expiresWithin(tokenRefreshMarginMillis);
 
             if (expired) {
-                log.debug("⏰ Token expired at: {}", expiresAt);
+                log.debug("⏰ Token expired at: {}", new Date(claims.expiresAtMillis()));
             }
 
             return expired;
@@ -354,6 +642,9 @@ public class AuthService {
     public void clearCache() {
         tokenCache.clear();
         sessionCache.clear(); // 👈 Додав очищення кешу сесій
+        if (store != null) {
+            store.clear(storeScope, false);
+        }
         log.debug("🗑️  Token and session cache cleared");
     }
 
@@ -361,21 +652,48 @@ public class AuthService {
 
     private static class TokenInfo {
         final String token;
+        final String refreshToken;
+        // 0 - без терміну дії
+        final long refreshExpiresAt;
         final long timestamp;
 
-        TokenInfo(String token, long timestamp) {
+        TokenInfo(String token, String refreshToken, long refreshExpiresAt, long timestamp) {
             this.token = token;
+            this.refreshToken = refreshToken;
+            this.refreshExpiresAt = refreshExpiresAt;
             this.timestamp = timestamp;
         }
+
+        boolean canRefresh() {
+            return refreshToken != null && (refreshExpiresAt == 0 || refreshExpiresAt > System.currentTimeMillis());
+        }
     }
 
     private static class SessionInfo {
         final Map<String, String> cookies;
         final long timestamp;
-
-        SessionInfo(Map<String, String> cookies, long timestamp) {
+        // Для фонового оновлення
+        final String username;
+        final String password;
+        final String targetRoute;
+        // Слот пулу сесій (0 - основна сесія)
+        final int slot;
+        volatile long lastAccess;
+        // Відновлена з SessionStore і ще не перевірена бекендом
+        boolean restored;
+
+        SessionInfo(Map<String, String> cookies, long timestamp, String username, String password, String targetRoute,
+                    int slot) {
             this.cookies = cookies;
             this.timestamp = timestamp;
+            this.username = username;
+            this.password = password;
+            this.targetRoute = targetRoute;
+            this.slot = slot;
+        }
+
+        boolean isExpired(long ttlMillis) {
+            return System.currentTimeMillis() - timestamp >= ttlMillis;
         }
     }
 
@@ -386,6 +704,9 @@ public class AuthService {
      */
     public void clearSessionCache() {
         sessionCache.clear();
+        if (store != null) {
+            store.clear(storeScope, true);
+        }
         log.debug("🗑️  Session cache cleared");
     }
 
@@ -401,8 +722,8 @@ public class AuthService {
         }
 
         SessionInfo sessionInfo = sessionCache.get(cacheKey);
-        // Перевіряємо TTL (15 хвилин)
-        boolean isValid = System.currentTimeMillis() - sessionInfo.timestamp < 900000;
+        // Перевіряємо TTL (auth.session.ttl.seconds)
+        boolean isValid = sessionInfo != null && !sessionInfo.isExpired(sessionTtlMillis);
 
         if (!isValid) {
             log.debug("⏰ Cached session expired for user: {}", username);
@@ -428,8 +749,14 @@ public class AuthService {
      * Видалити конкретну сесію з кешу
      */
     public void invalidateSession(String username, String password) {
-        String cacheKey = username + ":" + password;
-        sessionCache.remove(cacheKey);
+        // Разом зі слотами пулу сесій
+        sessionCache.values().removeIf(sessionInfo ->
+                sessionInfo.username.equals(username) && sessionInfo.password.equals(password));
+        if (store != null) {
+            for (int slot = 0; slot < sessionPoolSize; slot++) {
+                store.removeSession(storeKey(username, slot));
+            }
+        }
         log.debug("🗑️  Session invalidated for user: {}", username);
     }
 
@@ -474,11 +801,11 @@ public class AuthService {
 
             if (jsessionId.equals(cachedJSessionId)) {
                 // Знайшли відповідну сесію, перевіряємо TTL
-                boolean isValid = System.currentTimeMillis() - sessionInfo.timestamp < 900000;
+                boolean isValid = !sessionInfo.isExpired(sessionTtlMillis);
 
                 if (!isValid) {
                     log.debug("⏰ Session expired for JSESSIONID: {}", jsessionId.substring(0, 8) + "...");
-                    sessionCache.remove(entry.getKey());
+                    sessionCache.remove(entry.getKey(), sessionInfo);
                 } else {
                     log.debug("✅ Valid session found for JSESSIONID: {}", jsessionId.substring(0, 8) + "...");
                 }
@@ -519,7 +846,7 @@ public class AuthService {
             sessionCache.forEach((key, sessionInfo) -> {
                 String username = key.split(":")[0];
                 long ageMinutes = (System.currentTimeMillis() - sessionInfo.timestamp) / 60000;
-                boolean expired = System.currentTimeMillis() - sessionInfo.timestamp >= 900000;
+                boolean expired = sessionInfo.isExpired(sessionTtlMillis);
                 String jsessionId = sessionInfo.cookies.get("JSESSIONID");
                 String shortJSessionId = jsessionId != null ? jsessionId.substring(0, 8) + "..." : "N/A";
                 log.info("   - {}: age={}min, expired={}, JSESSIONID={}",
@@ -0,0 +1,84 @@
+package com.erp.utils.auth;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.interfaces.DecodedJWT;
+import com.erp.utils.config.ConfigProvider;
+import com.erp.utils.metrics.ClientMetrics;
+import lombok.experimental.UtilityClass;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 🎫 Bounded LRU cache of decoded JWTs (auth.jwt.cache.size)
+ * <p>
+ * The same few tokens are checked before every test method (expiry) and inspected by RBAC helpers
+ * (roles, permissions, SecurityMockProvider). Each token is base64/JSON-decoded once; after that an expiry check
+ * is a map lookup and a long comparison against the cached exp.
+ * <p>
+ * Counter in ClientMetrics: auth.jwt.decoded (cache misses)
+ */
+@UtilityClass
+public class JwtClaimsCache {
+
+    private static final int MAX_SIZE = Math.max(1, ConfigProvider.getConfig().authJwtCacheSize());
+
+    // LinkedHashMap в порядку доступу - найдавніше використаний токен витісняється першим
+    private static final Map<String, Claims> CACHE = new LinkedHashMap<>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Claims> eldest) {
+            return size() > MAX_SIZE;
+        }
+    };
+
+    /**
+     * Декодовані claims токена (JWTDecodeException для невалідного токена - не кешується)
+     */
+    public static Claims get(String token) {
+        synchronized (CACHE) {
+            Claims cached = CACHE.get(token);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        // Декодування поза блокуванням; паралельний промах по тому ж токену дасть той самий результат
+        DecodedJWT jwt = JWT.decode(token);
+        List<String> roles = jwt.getClaim("role").asList(String.class);
+        List<String> permissions = jwt.getClaim("permissions").asList(String.class);
+        Claims claims = new Claims(jwt,
+                jwt.getExpiresAt() != null ? jwt.getExpiresAt().getTime() : -1,
+                roles != null ? List.copyOf(roles) : List.of(),
+                permissions != null ? List.copyOf(permissions) : List.of());
+        ClientMetrics.increment("auth.jwt.decoded");
+        synchronized (CACHE) {
+            CACHE.put(token, claims);
+        }
+        return claims;
+    }
+
+    public static DecodedJWT decode(String token) {
+        return get(token).jwt();
+    }
+
+    public static void clear() {
+        synchronized (CACHE) {
+            CACHE.clear();
+        }
+    }
+
+    // ==================== Inner Types ====================
+
+    /**
+     * @param expiresAtMillis exp в мс (-1 - токен без exp)
+     */
+    public record Claims(DecodedJWT jwt, long expiresAtMillis, List<String> roles, List<String> permissions) {
+
+        /**
+         * Протермінований або спливає менше ніж за marginMillis (токен без exp вважається протермінованим)
+         */
+        public boolean expiresWithin(long marginMillis) {
+            return expiresAtMillis < 0 || expiresAtMillis - System.currentTimeMillis() < marginMillis;
+        }
+    }
+}
@@ -1,6 +1,5 @@
 package com.erp.utils.auth;
 
-import com.auth0.jwt.JWT;
 import com.auth0.jwt.interfaces.DecodedJWT;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
@@ -20,7 +19,8 @@ public class SecurityMockProvider {
      * на основі реального JWT токена з AuthService.
      */
     public static Authentication getMockAuthentication(String token) {
-        DecodedJWT decodedJWT = JWT.decode(token);
+        JwtClaimsCache.Claims cached = JwtClaimsCache.get(token);
+        DecodedJWT decodedJWT = cached.jwt();
 
         // 1. Витягуємо дані з токена (claims)
         Map<String, Object> claims = new HashMap<>();
@@ -28,11 +28,11 @@ public class SecurityMockProvider {
         claims.put("preferred_username", decodedJWT.getClaim("preferred_username").asString());
 
         // Витягуємо ролі та пермішени точно так, як вони лежать у JWT
-        List<String> roles = decodedJWT.getClaim("role").asList(String.class);
-        List<String> permissions = decodedJWT.getClaim("permissions").asList(String.class);
+        List<String> roles = cached.roles();
+        List<String> permissions = cached.permissions();
 
-        claims.put("role", roles != null ? roles : List.of());
-        claims.put("permissions", permissions != null ? permissions : List.of());
+        claims.put("role", roles);
+        claims.put("permissions", permissions);
 
         // 2. Створюємо OidcIdToken (необхідний для DefaultOidcUser)
         OidcIdToken idToken = new OidcIdToken(
@@ -44,11 +44,9 @@ public class SecurityMockProvider {
 
         // 3. Формуємо Granted Authorities (додаємо ROLE_ префікс для Spring Security)
         List<GrantedAuthority> authorities = new ArrayList<>();
-        if (roles != null) {
-            authorities.addAll(roles.stream()
-                    .map(r -> new SimpleGrantedAuthority("ROLE_" + r))
-                    .collect(Collectors.toList()));
-        }
+        authorities.addAll(roles.stream()
+                .map(r -> new SimpleGrantedAuthority("ROLE_" + r))
+                .collect(Collectors.toList()));
         authorities.add(new SimpleGrantedAuthority("OIDC_USER"));
 
         // 4. Створюємо Principal (DefaultOidcUser)
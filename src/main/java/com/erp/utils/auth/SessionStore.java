@@ -0,0 +1,253 @@
+package com.erp.utils.auth;
+
+import com.erp.utils.config.ConfigProvider;
+import com.erp.utils.metrics.ClientMetrics;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.crypto.Cipher;
+import javax.crypto.KeyGenerator;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 💾 Encrypted on-disk store of sessions and tokens between runs (auth.store.enabled=true)
+ * <p>
+ * A local rerun of one test class restores the sessions / tokens of the previous run instead of
+ * repeating the Keycloak login flow. Entries are keyed by environment (env profile, base URL, Keycloak realm)
+ * + user; AuthService checks them on restore (session TTL, JWT exp / refresh token expiry) and evicts stale ones.
+ * <p>
+ * File auth.store.dir/sessions.bin = 12-byte IV + AES-256-GCM(JSON); a file that can't be decrypted is ignored.
+ * The key never lives next to the data:
+ * - env ERP_AUTH_STORE_KEY (base64 of 32 bytes, e.g. from a CI secret / keychain), otherwise
+ * - auth.store.key.file (user-level, owner-only permissions; generated on first use), which must be outside auth.store.dir
+ * Any key / file problem makes the store unavailable for the run - the tests just log in as usual.
+ * The whole file is rewritten on every change - there are only a few entries per environment.
+ */
+@Slf4j
+public class SessionStore {
+
+    private static final String CIPHER = "AES/GCM/NoPadding";
+    private static final int IV_BYTES = 12;
+    private static final int TAG_BITS = 128;
+    private static final byte[] AAD = "erp-auto-test/sessions/v1".getBytes(StandardCharsets.UTF_8);
+    private static final String KEY_ENV = "ERP_AUTH_STORE_KEY";
+    private static final int KEY_BYTES = 32;
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    private static volatile SessionStore sharedInstance;
+
+    private final Path file;
+    private final Path keyFile;
+    private final SecureRandom random = new SecureRandom();
+    private final Map<String, StoredEntry> entries = new ConcurrentHashMap<>();
+
+    private SecretKey key;
+    // Ключ недоступний / сховище не пишеться - до кінця прогону працюємо без нього
+    private volatile boolean unavailable;
+
+    public SessionStore(Path dir, Path keyFile) {
+        this.file = dir.resolve("sessions.bin");
+        this.keyFile = keyFile.toAbsolutePath().normalize();
+        if (this.keyFile.startsWith(dir.toAbsolutePath().normalize())) {
+            log.warn("💾 auth.store.key.file {} is inside auth.store.dir - auth store disabled", keyFile);
+            unavailable = true;
+            return;
+        }
+        load();
+    }
+
+    public static boolean isEnabled() {
+        return ConfigProvider.getConfig().authStoreEnabled();
+    }
+
+    public static SessionStore shared() {
+        if (sharedInstance == null) {
+            synchronized (SessionStore.class) {
+                if (sharedInstance == null) {
+                    sharedInstance = new SessionStore(Path.of(ConfigProvider.getConfig().authStoreDir()),
+                            Path.of(ConfigProvider.getConfig().authStoreKeyFile()));
+                }
+            }
+        }
+        return sharedInstance;
+    }
+
+    public StoredSession session(String key) {
+        StoredEntry entry = entries.get(key);
+        return entry != null ? entry.session() : null;
+    }
+
+    public StoredToken token(String key) {
+        StoredEntry entry = entries.get(key);
+        return entry != null ? entry.token() : null;
+    }
+
+    public void putSession(String key, StoredSession session) {
+        entries.compute(key, (k, entry) -> new StoredEntry(session, entry != null ? entry.token() : null));
+        save();
+    }
+
+    public void putToken(String key, StoredToken token) {
+        entries.compute(key, (k, entry) -> new StoredEntry(entry != null ? entry.session() : null, token));
+        save();
+    }
+
+    /**
+     * Видаляє сесію (протермінована / відхилена бекендом); токен користувача лишається
+     */
+    public void removeSession(String key) {
+        if (session(key) == null) {
+            return;
+        }
+        entries.computeIfPresent(key, (k, entry) -> entry.token() != null ? new StoredEntry(null, entry.token()) : null);
+        ClientMetrics.increment("auth.store.evicted");
+        save();
+    }
+
+    public void removeToken(String key) {
+        if (token(key) == null) {
+            return;
+        }
+        entries.computeIfPresent(key, (k, entry) -> entry.session() != null ? new StoredEntry(entry.session(), null) : null);
+        ClientMetrics.increment("auth.store.evicted");
+        save();
+    }
+
+    /**
+     * Видаляє всі записи з префіксом ключа (наприклад, усе середовище)
+     */
+    public void clear(String keyPrefix, boolean sessionsOnly) {
+        entries.keySet().stream()
+                .filter(k -> k.startsWith(keyPrefix))
+                .toList()
+                .forEach(k -> {
+                    if (sessionsOnly) {
+                        entries.computeIfPresent(k, (kk, entry) -> entry.token() != null
+                                ? new StoredEntry(null, entry.token()) : null);
+                    } else {
+                        entries.remove(k);
+                    }
+                });
+        save();
+    }
+
+    // ==================== File ====================
+
+    private void load() {
+        if (!Files.exists(file)) {
+            return;
+        }
+        try {
+            ByteBuffer data = ByteBuffer.wrap(Files.readAllBytes(file));
+            byte[] iv = new byte[IV_BYTES];
+            data.get(iv);
+            byte[] encrypted = new byte[data.remaining()];
+            data.get(encrypted);
+
+            Cipher cipher = Cipher.getInstance(CIPHER);
+            cipher.init(Cipher.DECRYPT_MODE, key(), new GCMParameterSpec(TAG_BITS, iv));
+            cipher.updateAAD(AAD);
+            entries.putAll(JSON.readValue(cipher.doFinal(encrypted), new TypeReference<Map<String, StoredEntry>>() {
+            }));
+            log.info("💾 Loaded {} stored auth entries from {}", entries.size(), file);
+        } catch (IOException | GeneralSecurityException | RuntimeException e) {
+            // Інший ключ, пошкоджений файл, стара версія формату - просто логінимось заново
+            log.warn("💾 Ignoring unreadable auth store {}: {}", file, e.getMessage());
+        }
+    }
+
+    private synchronized void save() {
+        if (unavailable) {
+            return;
+        }
+        try {
+            byte[] iv = new byte[IV_BYTES];
+            random.nextBytes(iv);
+            Cipher cipher = Cipher.getInstance(CIPHER);
+            cipher.init(Cipher.ENCRYPT_MODE, key(), new GCMParameterSpec(TAG_BITS, iv));
+            cipher.updateAAD(AAD);
+            byte[] encrypted = cipher.doFinal(JSON.writeValueAsBytes(new TreeMap<>(entries)));
+
+            // Через тимчасовий файл - паралельний прогін не прочитає напівзаписаний файл
+            Files.createDirectories(file.getParent());
+            Path temp = Files.createTempFile(file.getParent(), "sessions", ".tmp");
+            Files.write(temp, ByteBuffer.allocate(IV_BYTES + encrypted.length).put(iv).put(encrypted).array());
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException | GeneralSecurityException | RuntimeException e) {
+            // Сховище - лише оптимізація: жодна помилка не має дійти до AuthService.login
+            unavailable = true;
+            log.warn("💾 Auth store {} unavailable for this run: {}", file, e.getMessage());
+        }
+    }
+
+    private synchronized SecretKey key() throws IOException, GeneralSecurityException {
+        if (key != null) {
+            return key;
+        }
+        String encoded = System.getenv(KEY_ENV);
+        byte[] bytes = encoded != null && !encoded.isBlank()
+                ? Base64.getDecoder().decode(encoded.trim())
+                : readOrCreateKeyFile();
+        if (bytes.length != KEY_BYTES) {
+            throw new GeneralSecurityException("auth store key must be " + KEY_BYTES + " bytes, got " + bytes.length);
+        }
+        key = new SecretKeySpec(bytes, "AES");
+        return key;
+    }
+
+    private byte[] readOrCreateKeyFile() throws IOException, GeneralSecurityException {
+        if (!Files.exists(keyFile)) {
+            Files.createDirectories(keyFile.getParent());
+            KeyGenerator generator = KeyGenerator.getInstance("AES");
+            generator.init(KEY_BYTES * 8, random);
+            // Повний ключ з'являється атомарно - паралельний прогін не прочитає порожній / неповний файл;
+            // hard link не замінює існуючий ключ, тому при гонці всі прогони беруть ключ першого
+            Path temp = keyFile.getFileSystem().supportedFileAttributeViews().contains("posix")
+                    ? Files.createTempFile(keyFile.getParent(), "store", ".key.tmp",
+                    PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rw-------")))
+                    : Files.createTempFile(keyFile.getParent(), "store", ".key.tmp");
+            try {
+                Files.write(temp, generator.generateKey().getEncoded());
+                try {
+                    Files.createLink(keyFile, temp);
+                } catch (FileAlreadyExistsException e) {
+                    // Ключ щойно створив паралельний прогін - читаємо його
+                } catch (UnsupportedOperationException e) {
+                    Files.move(temp, keyFile, StandardCopyOption.ATOMIC_MOVE);
+                }
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        }
+        return Files.readAllBytes(keyFile);
+    }
+
+    // ==================== Inner Types ====================
+
+    public record StoredSession(Map<String, String> cookies, long createdAt, String targetRoute) {
+    }
+
+    public record StoredToken(String accessToken, String refreshToken, long refreshExpiresAt, long createdAt) {
+    }
+
+    public record StoredEntry(StoredSession session, StoredToken token) {
+    }
+}
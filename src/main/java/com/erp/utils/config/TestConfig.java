@@ -1,5 +1,7 @@
 package com.erp.utils.config;
 
+import com.erp.enums.LogCaptureMode;
+import com.erp.enums.RecorderMode;
 import org.aeonbits.owner.Config;
 
 @Config.LoadPolicy(Config.LoadType.MERGE)
@@ -42,6 +44,44 @@ public interface TestConfig extends Config {
     @DefaultValue("test123")
     String authPassword();
 
+    // Session Cache (AuthService)
+    @Key("auth.session.ttl.seconds")
+    @DefaultValue("900")
+    int authSessionTtlSeconds();
+
+    // 0 = без фонового оновлення (сесія перелогінюється після TTL на потоці тесту)
+    @Key("auth.session.refresh.ahead.seconds")
+    @DefaultValue("120")
+    int authSessionRefreshAheadSeconds();
+
+    // Незалежних серверних сесій на роль (1 - одна сесія на роль, як раніше)
+    @Key("auth.session.pool.size")
+    @DefaultValue("1")
+    int authSessionPoolSize();
+
+    // Access token оновлюється (refresh_token grant) за стільки секунд до exp
+    @Key("auth.token.refresh.margin.seconds")
+    @DefaultValue("60")
+    int authTokenRefreshMarginSeconds();
+
+    // Скільки декодованих JWT тримати в пам'яті (JwtClaimsCache)
+    @Key("auth.jwt.cache.size")
+    @DefaultValue("256")
+    int authJwtCacheSize();
+
+    // Зашифроване сховище сесій/токенів між прогонами (для локальних перезапусків)
+    @Key("auth.store.enabled")
+    @DefaultValue("false")
+    boolean authStoreEnabled();
+
+    @Key("auth.store.dir")
+    @DefaultValue("${user.home}/.erp-auto-test")
+    String authStoreDir();
+
+    @Key("auth.store.key.file")
+    @DefaultValue("${user.home}/.config/erp-auto-test/store.key")
+    String authStoreKeyFile();
+
     // Database Configuration
     @Key("db.url")
     @DefaultValue("jdbc:postgresql://localhost:5432/erp_db")
@@ -68,6 +108,188 @@ public interface TestConfig extends Config {
     @DefaultValue("30")
     int timeout();
 
+    // Execution / Concurrency
+    @Key("execution.virtual.threads")
+    @DefaultValue("false")
+    boolean virtualThreadsEnabled();
+
+    @Key("execution.virtual.dataprovider.parallelism")
+    @DefaultValue("256")
+    int virtualDataProviderParallelism();
+
+    @Key("api.max.concurrent.requests")
+    @DefaultValue("64")
+    int maxConcurrentRequests();
+
+    @Key("api.max.concurrent.requests.per.endpoint")
+    @DefaultValue("16")
+    int maxConcurrentRequestsPerEndpoint();
+
+    @Key("api.adaptive.enabled")
+    @DefaultValue("false")
+    boolean apiAdaptiveEnabled();
+
+    @Key("api.adaptive.initial.limit")
+    @DefaultValue("8")
+    int apiAdaptiveInitialLimit();
+
+    @Key("api.adaptive.min.limit")
+    @DefaultValue("2")
+    int apiAdaptiveMinLimit();
+
+    @Key("api.adaptive.latency.tolerance")
+    @DefaultValue("2.0")
+    double apiAdaptiveLatencyTolerance();
+
+    @Key("api.adaptive.backoff.ratio")
+    @DefaultValue("0.75")
+    double apiAdaptiveBackoffRatio();
+
+    @Key("api.adaptive.window.min.samples")
+    @DefaultValue("10")
+    int apiAdaptiveWindowMinSamples();
+
+    @Key("api.rate.limit.roles")
+    @DefaultValue("")
+    String apiRateLimitRoles();
+
+    @Key("api.coalesce.get.requests")
+    @DefaultValue("true")
+    boolean coalesceGetRequests();
+
+    // Reference-data Response Cache
+    @Key("api.cache.enabled")
+    @DefaultValue("false")
+    boolean apiCacheEnabled();
+
+    @Key("api.cache.ttl.seconds")
+    @DefaultValue("60")
+    int apiCacheTtlSeconds();
+
+    @Key("api.cache.max.entries")
+    @DefaultValue("256")
+    int apiCacheMaxEntries();
+
+    // Hedged Requests
+    @Key("api.hedge.enabled")
+    @DefaultValue("false")
+    boolean apiHedgeEnabled();
+
+    @Key("api.hedge.percentile")
+    @DefaultValue("95")
+    double apiHedgePercentile();
+
+    @Key("api.hedge.initial.delay.ms")
+    @DefaultValue("500")
+    long apiHedgeInitialDelayMs();
+
+    @Key("api.hedge.min.samples")
+    @DefaultValue("20")
+    int apiHedgeMinSamples();
+
+    // Retries
+    @Key("api.retry.enabled")
+    @DefaultValue("true")
+    boolean apiRetryEnabled();
+
+    @Key("api.retry.max.attempts")
+    @DefaultValue("3")
+    int apiRetryMaxAttempts();
+
+    @Key("api.retry.initial.backoff.ms")
+    @DefaultValue("200")
+    long apiRetryInitialBackoffMs();
+
+    @Key("api.retry.max.backoff.ms")
+    @DefaultValue("2000")
+    long apiRetryMaxBackoffMs();
+
+    @Key("api.retry.max.elapsed.ms")
+    @DefaultValue("10000")
+    long apiRetryMaxElapsedMs();
+
+    @Key("api.retry.budget.ratio")
+    @DefaultValue("0.1")
+    double apiRetryBudgetRatio();
+
+    @Key("api.retry.budget.reserve")
+    @DefaultValue("10")
+    int apiRetryBudgetReserve();
+
+    @Key("api.retry.budget.window.seconds")
+    @DefaultValue("10")
+    int apiRetryBudgetWindowSeconds();
+
+    // Circuit Breaker / Health Gate
+    @Key("api.circuit.enabled")
+    @DefaultValue("true")
+    boolean apiCircuitEnabled();
+
+    @Key("api.circuit.failure.threshold")
+    @DefaultValue("5")
+    int apiCircuitFailureThreshold();
+
+    @Key("api.circuit.open.seconds")
+    @DefaultValue("15")
+    int apiCircuitOpenSeconds();
+
+    @Key("api.circuit.probe.timeout.ms")
+    @DefaultValue("3000")
+    int apiCircuitProbeTimeoutMs();
+
+    // HTTP Connection Pool
+    @Key("http.pool.max.total")
+    @DefaultValue("64")
+    int httpPoolMaxTotal();
+
+    @Key("http.pool.max.per.route")
+    @DefaultValue("32")
+    int httpPoolMaxPerRoute();
+
+    @Key("http.pool.idle.timeout.seconds")
+    @DefaultValue("30")
+    int httpPoolIdleTimeoutSeconds();
+
+    // HTTP Compression
+    @Key("http.compression.enabled")
+    @DefaultValue("true")
+    boolean httpCompressionEnabled();
+
+    // HTTP Exchange Logging
+    @Key("logging.capture.mode")
+    @DefaultValue("ALWAYS")
+    LogCaptureMode logCaptureMode();
+
+    @Key("logging.capture.buffer.size")
+    @DefaultValue("20")
+    int logCaptureBufferSize();
+
+    // HAR Export
+    @Key("har.enabled")
+    @DefaultValue("false")
+    boolean harEnabled();
+
+    @Key("har.dir")
+    @DefaultValue("target/har")
+    String harDir();
+
+    @Key("har.queue.capacity")
+    @DefaultValue("10000")
+    int harQueueCapacity();
+
+    @Key("har.max.file.mb")
+    @DefaultValue("50")
+    int harMaxFileMb();
+
+    // Exchange Recorder / Offline Replay
+    @Key("api.recorder.mode")
+    @DefaultValue("OFF")
+    RecorderMode apiRecorderMode();
+
+    @Key("api.recorder.file")
+    @DefaultValue("target/exchanges/exchanges.bin")
+    String apiRecorderFile();
+
     // Google Sheets
     @Key("google.sheets.spreadsheet.id")
     @DefaultValue("")
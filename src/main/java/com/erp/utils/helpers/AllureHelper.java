@@ -1,5 +1,6 @@
 package com.erp.utils.helpers;
 
+import com.erp.api.clients.BufferedResponse;
 import com.erp.api.endpoints.ApiEndpointDefinition;
 import com.erp.models.rbac.EndpointAccessRule;
 import io.qameta.allure.Allure;
@@ -7,8 +8,13 @@ import io.qameta.allure.Step;
 import io.restassured.response.Response;
 import lombok.extern.slf4j.Slf4j;
 
+import java.io.IOException;
 import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
 
 @Slf4j
 public class AllureHelper {
@@ -18,13 +24,8 @@ public class AllureHelper {
      */
     @Step("Attach Schema Validation Details (Expected vs Actual)")
     public static void attachSchemaValidationInfo(EndpointAccessRule rule, Response response) {
-        // 1. Прикріплюємо Actual Body
-        String actualJson;
-        try {
-            actualJson = response.jsonPath().prettify();
-        } catch (Exception e) {
-            actualJson = response.body().asString();
-        }
+        // 1. Прикріплюємо Actual Body (prettyJson сам повертає сирий текст, якщо це не JSON)
+        String actualJson = BufferedResponse.of(response).prettyJson();
         Allure.addAttachment("🔍 Actual Response Body", "application/json", actualJson, "json");
 
         // 2. Прикріплюємо Expected Schema
@@ -51,7 +52,7 @@ public class AllureHelper {
     @Step("Validation Details for {definition.name}")
     public static void attachSchemaValidationInfo(ApiEndpointDefinition definition, Response response) {
         // 1. Прикріплюємо Actual Body
-        String actualJson = response.jsonPath().prettify();
+        String actualJson = BufferedResponse.of(response).prettyJson();
         Allure.addAttachment("🔍 Actual Response Body", "application/json", actualJson, "json");
 
         // 2. Прикріплюємо Expected Schema
@@ -75,9 +76,26 @@ public class AllureHelper {
     @Step("Attach Response Details")
     public static void attachResponseDetails(Response response) {
         Allure.addAttachment("Response Status", String.valueOf(response.statusCode()));
-        String body = response.body().asString();
-        if (body != null && !body.isEmpty()) {
+        String body = BufferedResponse.of(response).asString();
+        if (!body.isEmpty()) {
             Allure.addAttachment("Response Body", "application/json", body, "json");
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Копіює allure/categories.json з classpath в директорію результатів Allure
+     * (окремі категорії для таймаутів тощо)
+     */
+    public static void installCategories() {
+        Path resultsDir = Paths.get(System.getProperty("allure.results.directory", "target/allure-results"));
+        try (InputStream categories = AllureHelper.class.getClassLoader().getResourceAsStream("allure/categories.json")) {
+            if (categories == null) {
+                return;
+            }
+            Files.createDirectories(resultsDir);
+            Files.copy(categories, resultsDir.resolve("categories.json"), StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            log.warn("⚠️ Failed to install Allure categories: {}", e.getMessage());
+        }
+    }
+}
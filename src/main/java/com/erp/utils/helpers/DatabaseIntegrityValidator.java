@@ -3,11 +3,11 @@ package com.erp.utils.helpers;
 import com.erp.api.clients.ApiExecutor;
 import com.erp.api.endpoints.ApiEndpointDefinition;
 import com.erp.enums.UserRole;
+import com.erp.utils.ResponseDeserializer;
 import io.qameta.allure.Allure;
 import io.restassured.response.Response;
 import lombok.extern.slf4j.Slf4j;
 
-import java.util.List;
 import java.util.function.Predicate;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -26,13 +26,8 @@ public class DatabaseIntegrityValidator {
                                             Predicate<RES> filter) {
         return Allure.step("Отримання поточної кількості записів для перевірки цілісності", () -> {
             Response response = apiExecutor.execute(endpoint, userRole);
-            List<RES> list = response.jsonPath().getList("", responseClass);
-
-            if (list == null) return 0L;
-
-            return list.stream()
-                    .filter(filter)
-                    .count();
+            // Елементи читаються потоком, в пам'яті тільки поточний
+            return ResponseDeserializer.count(response, responseClass, filter);
         });
     }
 
@@ -0,0 +1,212 @@
+package com.erp.utils.metrics;
+
+import io.qameta.allure.Allure;
+import lombok.experimental.UtilityClass;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * 📊 Suite-wide client metrics registry
+ * <p>
+ * Four kinds of metrics:
+ * - counters (monotonic, e.g. "cache.hit")
+ * - gauges (sampled on read, e.g. "http.pool.leased")
+ * - stats (count / sum / min / max of recorded values, e.g. "http.pool.lease.wait.micros")
+ * - histograms (stats + power-of-two buckets for percentiles, e.g. "api.payload.wire.bytes.RESOURCE_GET_ALL")
+ * <p>
+ * Summary is written to the log and attached to Allure at the end of the suite (see BaseTest).
+ */
+@Slf4j
+@UtilityClass
+public class ClientMetrics {
+
+    private static final Map<String, LongAdder> COUNTERS = new ConcurrentSkipListMap<>();
+    private static final Map<String, Supplier<? extends Number>> GAUGES = new ConcurrentSkipListMap<>();
+    private static final Map<String, Stats> STATS = new ConcurrentSkipListMap<>();
+    private static final Map<String, Histogram> HISTOGRAMS = new ConcurrentSkipListMap<>();
+
+    // ============================================
+    // Counters
+    // ============================================
+
+    public static void increment(String name) {
+        add(name, 1);
+    }
+
+    public static void add(String name, long delta) {
+        COUNTERS.computeIfAbsent(name, n -> new LongAdder()).add(delta);
+    }
+
+    public static long count(String name) {
+        LongAdder adder = COUNTERS.get(name);
+        return adder != null ? adder.sum() : 0;
+    }
+
+    // ============================================
+    // Gauges
+    // ============================================
+
+    public static void gauge(String name, Supplier<? extends Number> supplier) {
+        GAUGES.put(name, supplier);
+    }
+
+    // ============================================
+    // Stats
+    // ============================================
+
+    public static void record(String name, long value) {
+        STATS.computeIfAbsent(name, n -> new Stats()).record(value);
+    }
+
+    public static Stats stats(String name) {
+        return STATS.get(name);
+    }
+
+    // ============================================
+    // Histograms
+    // ============================================
+
+    public static void histogram(String name, long value) {
+        HISTOGRAMS.computeIfAbsent(name, n -> new Histogram()).record(value);
+    }
+
+    public static Histogram histogramOf(String name) {
+        return HISTOGRAMS.get(name);
+    }
+
+    // ============================================
+    // Reporting
+    // ============================================
+
+    public static String summary() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━\n");
+        sb.append("📊 API Client Metrics\n");
+        sb.append("━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━\n");
+
+        COUNTERS.forEach((name, value) -> sb.append(name).append(" = ").append(value.sum()).append("\n"));
+        GAUGES.forEach((name, supplier) -> sb.append(name).append(" = ").append(readGauge(supplier)).append("\n"));
+        STATS.forEach((name, stats) -> sb.append(name).append(" = ").append(stats).append("\n"));
+        HISTOGRAMS.forEach((name, histogram) -> sb.append(name).append(" = ").append(histogram).append("\n"));
+
+        sb.append("━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━\n");
+        return sb.toString();
+    }
+
+    public static void logSummary() {
+        log.info("\n{}", summary());
+    }
+
+    public static void attachToAllure() {
+        Allure.addAttachment("📊 API Client Metrics", "text/plain", summary(), "txt");
+    }
+
+    public static void reset() {
+        COUNTERS.clear();
+        STATS.clear();
+        HISTOGRAMS.clear();
+    }
+
+    private static Object readGauge(Supplier<? extends Number> supplier) {
+        try {
+            return supplier.get();
+        } catch (Exception e) {
+            return "n/a";
+        }
+    }
+
+    // ==================== Inner Classes ====================
+
+    /**
+     * Lock-free count / sum / min / max
+     */
+    public static class Stats {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder sum = new LongAdder();
+        private final LongAccumulator min = new LongAccumulator(Math::min, Long.MAX_VALUE);
+        private final LongAccumulator max = new LongAccumulator(Math::max, Long.MIN_VALUE);
+
+        void record(long value) {
+            count.increment();
+            sum.add(value);
+            min.accumulate(value);
+            max.accumulate(value);
+        }
+
+        public long getCount() {
+            return count.sum();
+        }
+
+        public long getSum() {
+            return sum.sum();
+        }
+
+        public long getMin() {
+            return getCount() == 0 ? 0 : min.get();
+        }
+
+        public long getMax() {
+            return getCount() == 0 ? 0 : max.get();
+        }
+
+        public double getMean() {
+            long c = getCount();
+            return c == 0 ? 0 : (double) getSum() / c;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("count=%d, sum=%d, min=%d, mean=%.1f, max=%d",
+                    getCount(), getSum(), getMin(), getMean(), getMax());
+        }
+    }
+
+    /**
+     * Stats + лічильники по степенях двійки: bucket k містить значення з [2^(k-1), 2^k)
+     */
+    public static class Histogram extends Stats {
+        private final LongAdder[] buckets = new LongAdder[65];
+
+        Histogram() {
+            for (int i = 0; i < buckets.length; i++) {
+                buckets[i] = new LongAdder();
+            }
+        }
+
+        @Override
+        void record(long value) {
+            super.record(value);
+            buckets[64 - Long.numberOfLeadingZeros(Math.max(0, value))].increment();
+        }
+
+        /**
+         * Верхня межа bucket'а, в який потрапляє перцентиль p (0..100)
+         */
+        public long percentileUpperBound(double p) {
+            long total = getCount();
+            if (total == 0) {
+                return 0;
+            }
+            long rank = (long) Math.ceil(p / 100.0 * total);
+            long seen = 0;
+            for (int i = 0; i < buckets.length; i++) {
+                seen += buckets[i].sum();
+                if (seen >= rank) {
+                    return i == 0 ? 0 : Math.min(getMax(), i >= 63 ? Long.MAX_VALUE : (1L << i) - 1);
+                }
+            }
+            return getMax();
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s, p50<=%d, p95<=%d",
+                    super.toString(), percentileUpperBound(50), percentileUpperBound(95));
+        }
+    }
+}
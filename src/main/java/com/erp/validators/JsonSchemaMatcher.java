@@ -0,0 +1,71 @@
+package com.erp.validators;
+
+import com.erp.api.clients.BufferedResponse;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.github.fge.jsonschema.core.exceptions.ProcessingException;
+import com.github.fge.jsonschema.core.report.ProcessingReport;
+import com.github.fge.jsonschema.main.JsonSchema;
+import com.github.fge.jsonschema.main.JsonSchemaFactory;
+import io.restassured.response.Response;
+import lombok.experimental.UtilityClass;
+
+import java.io.UncheckedIOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 📐 JSON Schema check against compiled classpath schemas
+ * <p>
+ * Reuses the JSON tree of {@link BufferedResponse} and a schema compiled once per path,
+ * so neither the body nor the schema is parsed again. Used by ResponseValidator and SchemaRegistry.
+ */
+@UtilityClass
+public class JsonSchemaMatcher {
+
+    // Скомпільовані схеми; $ref резолвляться відносно URL файлу, як у matchesJsonSchemaInClasspath
+    private static final Map<String, JsonSchema> COMPILED_SCHEMAS = new ConcurrentHashMap<>();
+
+    /**
+     * ✅ Validate response body against a classpath schema
+     *
+     * @param response   Response to validate
+     * @param schemaPath Classpath location of the schema
+     * @throws AssertionError if the body is not JSON or does not match the schema
+     */
+    public static void assertMatchesSchema(Response response, String schemaPath) {
+        JsonNode body;
+        try {
+            body = BufferedResponse.of(response).json();
+        } catch (UncheckedIOException e) {
+            throw new AssertionError("Response body is not valid JSON: " + e.getCause().getMessage(), e);
+        }
+
+        ProcessingReport report;
+        try {
+            report = compiledSchema(schemaPath).validate(body);
+        } catch (ProcessingException e) {
+            throw new IllegalStateException("Failed to validate against schema: " + schemaPath, e);
+        }
+
+        if (!report.isSuccess()) {
+            throw new AssertionError(String.format(
+                    "Expected: The content to match the given JSON schema (%s).%n%s", schemaPath, report));
+        }
+    }
+
+    private static JsonSchema compiledSchema(String schemaPath) {
+        return COMPILED_SCHEMAS.computeIfAbsent(schemaPath, path -> {
+            URL url = Thread.currentThread().getContextClassLoader().getResource(path);
+            if (url == null) {
+                throw new IllegalArgumentException("Schema file not found in classpath: " + path);
+            }
+            try {
+                return JsonSchemaFactory.byDefault().getJsonSchema(url.toURI().toString());
+            } catch (ProcessingException | URISyntaxException e) {
+                throw new IllegalStateException("Failed to load schema: " + path, e);
+            }
+        });
+    }
+}
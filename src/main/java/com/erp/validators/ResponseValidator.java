@@ -1,21 +1,27 @@
 package com.erp.validators;
 
+import com.erp.api.clients.BufferedResponse;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.NullNode;
 import io.qameta.allure.Allure;
 import io.qameta.allure.Step;
 import io.restassured.response.Response;
 import lombok.extern.slf4j.Slf4j;
 
 import java.io.InputStream;
+import java.math.BigDecimal;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Scanner;
 
-import static io.restassured.module.jsv.JsonSchemaValidator.matchesJsonSchemaInClasspath;
-
 @Slf4j
 public class ResponseValidator {
 
+    // Результати jsonPath() (Map / List / Number / String) → JsonNode для тих самих перевірок
+    private static final ObjectMapper GPATH_VALUES = new ObjectMapper();
+
     private final Response response;
     private final List<String> errors = new ArrayList<>();
     private boolean useSchema = false;
@@ -54,9 +60,7 @@ public class ResponseValidator {
 
         try {
             // ✅ 3. ВИКОНУЄМО ВАЛІДАЦІЮ
-            response.then()
-                    .assertThat()
-                    .body(matchesJsonSchemaInClasspath(schemaPath));
+            JsonSchemaMatcher.assertMatchesSchema(response, schemaPath);
 
             validationSuccess = true;
             log.info("✅ Schema validation PASSED: {}", schemaPath);
@@ -213,10 +217,58 @@ public class ResponseValidator {
 
     // ========== MANUAL FIELD VALIDATION ==========
 
+    // Тіло парситься один раз і спільне для всіх перевірок (JsonPath парсить документ на кожен get)
+    private BufferedResponse body() {
+        return BufferedResponse.of(response);
+    }
+
+    private static boolean isAbsent(JsonNode node) {
+        return node == null || node.isMissingNode() || node.isNull();
+    }
+
+    /**
+     * Число в рядку ("42") теж вважається числом
+     */
+    private static boolean isNumeric(JsonNode value) {
+        if (!value.isTextual()) {
+            return false;
+        }
+        try {
+            new BigDecimal(value.asText().trim());
+            return true;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Значення за GPath шляхом: простий шлях береться з дерева BufferedResponse, а все, чого там немає
+     * (items.id - зібраний список, find / findAll / size(), справді відсутнє поле), - через jsonPath(), як раніше
+     */
+    private JsonNode field(String path) {
+        return field(null, path, path);
+    }
+
+    /**
+     * @param from  вузол, від якого рахується relative (null - корінь відповіді)
+     * @param gpath повний GPath шлях того самого значення для jsonPath()
+     */
+    private JsonNode field(JsonNode from, String relative, String gpath) {
+        try {
+            JsonNode node = from != null ? BufferedResponse.path(from, relative) : body().node(relative);
+            if (!isAbsent(node)) {
+                return node;
+            }
+        } catch (RuntimeException e) {
+            // Не простий шлях (вираз GPath) - далі jsonPath()
+        }
+        Object value = response.jsonPath().get(gpath);
+        return value != null ? GPATH_VALUES.valueToTree(value) : NullNode.getInstance();
+    }
+
     public ResponseValidator hasField(String fieldName) {
         try {
-            Object value = response.jsonPath().get(fieldName);
-            if (value == null) {
+            if (isAbsent(field(fieldName))) {
                 errors.add(String.format("Field '%s' is missing", fieldName));
             }
         } catch (Exception e) {
@@ -227,10 +279,10 @@ public class ResponseValidator {
 
     public ResponseValidator hasNonEmptyField(String fieldName) {
         try {
-            Object value = response.jsonPath().get(fieldName);
-            if (value == null) {
+            JsonNode value = field(fieldName);
+            if (isAbsent(value)) {
                 errors.add(String.format("Field '%s' is null", fieldName));
-            } else if (value instanceof String && ((String) value).isEmpty()) {
+            } else if (value.isTextual() && value.asText().isEmpty()) {
                 errors.add(String.format("Field '%s' is empty string", fieldName));
             }
         } catch (Exception e) {
@@ -241,10 +293,12 @@ public class ResponseValidator {
 
     public ResponseValidator hasPositiveNumber(String fieldName) {
         try {
-            Number value = response.jsonPath().get(fieldName);
-            if (value == null) {
+            JsonNode value = field(fieldName);
+            if (isAbsent(value)) {
                 errors.add(String.format("Field '%s' is null", fieldName));
-            } else if (value.longValue() <= 0) {
+            } else if (!value.isNumber() && !isNumeric(value)) {
+                errors.add(String.format("Field '%s' validation failed: not a number: %s", fieldName, value));
+            } else if ((value.isNumber() ? value.longValue() : new BigDecimal(value.asText().trim()).longValue()) <= 0) {
                 errors.add(String.format("Field '%s' is not positive: %s", fieldName, value));
             }
         } catch (Exception e) {
@@ -255,8 +309,7 @@ public class ResponseValidator {
 
     public ResponseValidator isArray() {
         try {
-            List<?> list = response.jsonPath().getList("$");
-            if (list == null) {
+            if (!body().json().isArray()) {
                 errors.add("Response is not an array");
             }
         } catch (Exception e) {
@@ -267,8 +320,8 @@ public class ResponseValidator {
 
     public ResponseValidator hasMinArraySize(int minSize) {
         try {
-            List<?> list = response.jsonPath().getList("$");
-            if (list == null) {
+            JsonNode list = body().json();
+            if (!list.isArray()) {
                 errors.add("Response is not an array");
             } else if (list.size() < minSize) {
                 errors.add(String.format("Array size %d is less than minimum %d", list.size(), minSize));
@@ -281,15 +334,14 @@ public class ResponseValidator {
 
     public ResponseValidator eachArrayItemHasField(String fieldName) {
         try {
-            List<?> list = response.jsonPath().getList("$");
-            if (list == null) {
+            JsonNode list = body().json();
+            if (!list.isArray()) {
                 errors.add("Response is not an array");
                 return this;
             }
 
             for (int i = 0; i < list.size(); i++) {
-                Object value = response.jsonPath().get(String.format("[%d].%s", i, fieldName));
-                if (value == null) {
+                if (isAbsent(field(list.get(i), fieldName, String.format("[%d].%s", i, fieldName)))) {
                     errors.add(String.format("Array item [%d] is missing field '%s'", i, fieldName));
                 }
             }
@@ -301,8 +353,7 @@ public class ResponseValidator {
 
     public ResponseValidator hasArrayField(String fieldName) {
         try {
-            List<?> list = response.jsonPath().getList(fieldName);
-            if (list == null) {
+            if (!field(fieldName).isArray()) {
                 errors.add(String.format("Field '%s' is not an array or doesn't exist", fieldName));
             }
         } catch (Exception e) {
@@ -313,15 +364,14 @@ public class ResponseValidator {
 
     public ResponseValidator eachItemInArrayField(String arrayField, String itemField) {
         try {
-            List<?> list = response.jsonPath().getList(arrayField);
-            if (list == null) {
+            JsonNode list = field(arrayField);
+            if (!list.isArray()) {
                 errors.add(String.format("Field '%s' is not an array", arrayField));
                 return this;
             }
 
             for (int i = 0; i < list.size(); i++) {
-                Object value = response.jsonPath().get(String.format("%s[%d].%s", arrayField, i, itemField));
-                if (value == null) {
+                if (isAbsent(field(list.get(i), itemField, String.format("%s[%d].%s", arrayField, i, itemField)))) {
                     errors.add(String.format("Array '%s' item [%d] is missing field '%s'",
                             arrayField, i, itemField));
                 }
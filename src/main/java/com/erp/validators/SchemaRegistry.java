@@ -6,8 +6,6 @@ import io.restassured.response.Response;
 import lombok.experimental.UtilityClass;
 import lombok.extern.slf4j.Slf4j;
 
-import static io.restassured.module.jsv.JsonSchemaValidator.matchesJsonSchemaInClasspath;
-
 /**
  * 📋 Schema Registry - JSON Schema validation utility
  * <p>
@@ -141,9 +139,7 @@ public class SchemaRegistry {
         log.debug("✅ Validating response against schema: {}", schemaPath);
 
         try {
-            response.then()
-                    .assertThat()
-                    .body(matchesJsonSchemaInClasspath(schemaPath));
+            assertMatchesSchema(response, schemaPath);
 
             log.debug("✅ Schema validation passed for {}", endpoint);
         } catch (AssertionError e) {
@@ -243,6 +239,15 @@ public class SchemaRegistry {
         }
     }
 
+    /**
+     * ✅ Validate response body against a classpath schema
+     *
+     * @see JsonSchemaMatcher#assertMatchesSchema(Response, String)
+     */
+    public static void assertMatchesSchema(Response response, String schemaPath) {
+        JsonSchemaMatcher.assertMatchesSchema(response, schemaPath);
+    }
+
     // ============================================
     // 📊 Utility Methods
     // ============================================
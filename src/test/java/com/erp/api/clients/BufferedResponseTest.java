@@ -0,0 +1,100 @@
+package com.erp.api.clients;
+
+import io.restassured.builder.ResponseBuilder;
+import io.restassured.response.Response;
+import org.testng.annotations.Test;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for BufferedResponse streaming array iteration: empty, null and non-array bodies, early termination
+ */
+public class BufferedResponseTest {
+
+    @Test
+    public void testEmptyBodyIsEmptyStream() {
+        BufferedResponse body = BufferedResponse.of(response(""));
+
+        assertThat(body.stream(Item.class)).isEmpty();
+        assertThat(body.count()).isZero();
+    }
+
+    @Test
+    public void testNullBodyIsEmptyStream() {
+        BufferedResponse body = BufferedResponse.of(response("null"));
+
+        assertThat(body.stream(Item.class)).isEmpty();
+        assertThat(body.count()).isZero();
+    }
+
+    @Test
+    public void testNonArrayBodyIsRejected() {
+        BufferedResponse body = BufferedResponse.of(response("{\"id\":1}"));
+
+        assertThatThrownBy(() -> body.stream(Item.class))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("START_OBJECT");
+        assertThatThrownBy(body::count).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    public void testElementsAreStreamedInOrder() {
+        BufferedResponse body = BufferedResponse.of(response("[{\"id\":1},{\"id\":2,\"tags\":[\"a\",\"b\"]},{\"id\":3}]"));
+
+        List<Integer> ids = body.stream(Item.class).map(Item::id).toList();
+
+        assertThat(ids).containsExactly(1, 2, 3);
+        assertThat(body.count()).as("Nested arrays are skipped, not counted").isEqualTo(3);
+        assertThat(body.stream(Item.class)).as("Each call opens a new parser").hasSize(3);
+    }
+
+    @Test
+    public void testEmptyArray() {
+        BufferedResponse body = BufferedResponse.of(response("[]"));
+
+        assertThat(body.stream(Item.class)).isEmpty();
+        assertThat(body.count()).isZero();
+    }
+
+    @Test
+    public void testEarlyTerminationDoesNotReadTheRest() {
+        // Хвіст після другого елемента обірваний - його не має бути прочитано
+        BufferedResponse body = BufferedResponse.of(response("[{\"id\":1},{\"id\":2},{\"id\":"));
+
+        Optional<Item> first = body.stream(Item.class).findFirst();
+        assertThat(first).map(Item::id).hasValue(1);
+
+        try (Stream<Item> elements = body.stream(Item.class)) {
+            assertThat(elements.limit(2)).hasSize(2);
+        }
+
+        assertThatThrownBy(() -> body.stream(Item.class).toList())
+                .as("Reading the whole array reaches the broken tail")
+                .isInstanceOf(RuntimeException.class);
+    }
+
+    @Test
+    public void testBufferIsSharedPerResponse() {
+        Response response = response("[1,2]");
+
+        assertThat(BufferedResponse.of(response)).isSameAs(BufferedResponse.of(response));
+    }
+
+    private static Response response(String body) {
+        return new ResponseBuilder()
+                .setStatusCode(200)
+                .setContentType("application/json")
+                .setBody(body)
+                .build();
+    }
+
+    // ==================== Inner Classes ====================
+
+    public record Item(int id, List<String> tags) {
+    }
+}
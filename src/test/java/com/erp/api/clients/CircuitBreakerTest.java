@@ -0,0 +1,134 @@
+package com.erp.api.clients;
+
+import org.testng.SkipException;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for CircuitBreaker state transitions (no backend needed)
+ */
+public class CircuitBreakerTest {
+
+    private static final long OPEN_MILLIS = 50;
+
+    @Test
+    public void testOpensAfterThresholdAndSkips() {
+        CircuitBreaker breaker = newBreaker();
+
+        failConnect(breaker);
+        assertThat(breaker.getState()).as("One failure is below the threshold").isEqualTo(CircuitBreaker.State.CLOSED);
+        failConnect(breaker);
+        assertThat(breaker.getState()).as("Threshold reached").isEqualTo(CircuitBreaker.State.OPEN);
+
+        assertThatThrownBy(() -> breaker.call(() -> "ok"))
+                .as("OPEN breaker skips requests")
+                .isInstanceOf(SkipException.class);
+    }
+
+    @Test
+    public void testHalfOpenProbeSuccessCloses() throws InterruptedException {
+        CircuitBreaker breaker = openBreaker();
+        Thread.sleep(OPEN_MILLIS * 2);
+
+        assertThat(breaker.call(() -> "ok")).isEqualTo("ok");
+        assertThat(breaker.getState()).as("Successful probe closes the breaker").isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    public void testHalfOpenProbeFailureReopens() throws InterruptedException {
+        CircuitBreaker breaker = openBreaker();
+        Thread.sleep(OPEN_MILLIS * 2);
+
+        failConnect(breaker);
+        assertThat(breaker.getState()).as("Failed probe reopens the breaker").isEqualTo(CircuitBreaker.State.OPEN);
+    }
+
+    @Test
+    public void testHalfOpenAllowsSingleProbe() throws InterruptedException {
+        CircuitBreaker breaker = openBreaker();
+        Thread.sleep(OPEN_MILLIS * 2);
+
+        breaker.acquirePermission();
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+        assertThatThrownBy(breaker::acquirePermission)
+                .as("Second request while the probe is in flight is skipped")
+                .isInstanceOf(SkipException.class);
+    }
+
+    @Test
+    public void testErrorInProbeReleasesPermission() throws InterruptedException {
+        CircuitBreaker breaker = openBreaker();
+        Thread.sleep(OPEN_MILLIS * 2);
+
+        assertThatThrownBy(() -> breaker.call(() -> {
+            throw new AssertionError("boom");
+        })).isInstanceOf(AssertionError.class);
+
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+        assertThat(breaker.call(() -> "ok")).as("Probe slot is free after an Error").isEqualTo("ok");
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    public void testReleasePermissionFreesProbe() throws InterruptedException {
+        CircuitBreaker breaker = openBreaker();
+        Thread.sleep(OPEN_MILLIS * 2);
+
+        breaker.acquirePermission();
+        breaker.releasePermission();
+        breaker.acquirePermission();
+        breaker.onSuccess();
+
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    public void testNonConnectivityFailureIsIgnored() {
+        CircuitBreaker breaker = newBreaker();
+
+        for (int i = 0; i < 5; i++) {
+            assertThatThrownBy(() -> breaker.call(() -> {
+                throw new IllegalStateException("400 Bad Request");
+            })).isInstanceOf(IllegalStateException.class);
+        }
+
+        assertThat(breaker.getState()).as("Only connectivity failures count").isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    public void testDisabledBreakerNeverOpens() {
+        CircuitBreaker breaker = new CircuitBreaker("test", false, 1, OPEN_MILLIS, 100);
+
+        failConnect(breaker);
+        failConnect(breaker);
+
+        assertThat(breaker.call(() -> "ok")).isEqualTo("ok");
+    }
+
+    private static CircuitBreaker newBreaker() {
+        return new CircuitBreaker("test", true, 2, OPEN_MILLIS, 100);
+    }
+
+    private static CircuitBreaker openBreaker() {
+        CircuitBreaker breaker = newBreaker();
+        failConnect(breaker);
+        failConnect(breaker);
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        return breaker;
+    }
+
+    private static void failConnect(CircuitBreaker breaker) {
+        try {
+            breaker.call(() -> {
+                throw new UncheckedIOException(new IOException("Connection refused"));
+            });
+        } catch (UncheckedIOException | SkipException expected) {
+            // очікувано
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package com.erp.api.clients;
+
+import com.erp.api.endpoints.ApiEndpointDefinition;
+import org.apache.http.HttpConnection;
+import org.apache.http.HttpConnectionMetrics;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for DeadlineExecutor: connection abort on expiry, interrupt cleanup and cancellation scopes
+ */
+public class DeadlineExecutorTest {
+
+    private static final ApiEndpointDefinition ENDPOINT = ApiEndpointDefinition.RESOURCE_GET_ALL;
+    private static final long TIMEOUT_MILLIS = 100;
+
+    @Test
+    public void testExpiryAbortsTrackedConnectionAndClearsInterrupt() {
+        DeadlineExecutor executor = new DeadlineExecutor(TIMEOUT_MILLIS);
+        FakeConnection connection = new FakeConnection();
+
+        assertThatThrownBy(() -> executor.execute(ENDPOINT, () -> {
+            DeadlineExecutor.track(connection);
+            // Як блокуюче читання сокета: переривання ігнорується, виходимо тільки після shutdown()
+            connection.awaitShutdown();
+            throw new UncheckedIOException(new IOException("Socket closed"));
+        })).isInstanceOf(ApiTimeoutException.class);
+
+        assertThat(connection.isShutdown()).as("Tracked connection is aborted on expiry").isTrue();
+        assertThat(Thread.currentThread().isInterrupted()).as("Deadline interrupt does not leak").isFalse();
+    }
+
+    @Test
+    public void testCallWithinDeadlineKeepsConnection() {
+        DeadlineExecutor executor = new DeadlineExecutor(TimeUnit.SECONDS.toMillis(5));
+        FakeConnection connection = new FakeConnection();
+
+        String result = executor.execute(ENDPOINT, () -> {
+            DeadlineExecutor.track(connection);
+            DeadlineExecutor.untrack(connection);
+            return "ok";
+        });
+
+        assertThat(result).isEqualTo("ok");
+        assertThat(connection.isShutdown()).isFalse();
+        assertThat(Thread.currentThread().isInterrupted()).isFalse();
+    }
+
+    @Test
+    public void testConnectionLeasedAfterExpiryIsAbortedAtOnce() {
+        DeadlineExecutor executor = new DeadlineExecutor(TIMEOUT_MILLIS);
+        FakeConnection late = new FakeConnection();
+
+        assertThatThrownBy(() -> executor.execute(ENDPOINT, () -> {
+            try {
+                Thread.sleep(TimeUnit.SECONDS.toMillis(5));
+            } catch (InterruptedException e) {
+                // Переривання загубилось - наприклад, його проковтнула бібліотека
+            }
+            DeadlineExecutor.track(late);
+            return "late";
+        })).isInstanceOf(ApiTimeoutException.class);
+
+        assertThat(late.isShutdown()).isTrue();
+        assertThat(Thread.currentThread().isInterrupted()).isFalse();
+    }
+
+    @Test
+    public void testCancelledScopeAbortsOnlyItsConnections() throws InterruptedException {
+        DeadlineExecutor executor = new DeadlineExecutor(TimeUnit.SECONDS.toMillis(5));
+        FakeConnection own = new FakeConnection();
+        FakeConnection attempt = new FakeConnection();
+        AtomicBoolean cancelledSeen = new AtomicBoolean();
+        AtomicReference<Boolean> inheritedDeadline = new AtomicReference<>();
+
+        executor.execute(ENDPOINT, () -> {
+            DeadlineExecutor.track(own);
+            DeadlineExecutor.Scope parent = DeadlineExecutor.current();
+            Thread child = Thread.ofPlatform().start(() -> {
+                inheritedDeadline.set(DeadlineExecutor.current() != null);
+                try (DeadlineExecutor.Scope scope = DeadlineExecutor.openScope(parent)) {
+                    DeadlineExecutor.track(attempt);
+                    scope.cancel();
+                    cancelledSeen.set(DeadlineExecutor.isCancelled());
+                }
+            });
+            join(child);
+            return null;
+        });
+
+        assertThat(inheritedDeadline.get()).as("Deadline is not inherited by new threads").isFalse();
+        assertThat(attempt.isShutdown()).as("Cancelled scope aborts its connection").isTrue();
+        assertThat(cancelledSeen.get()).isTrue();
+        assertThat(own.isShutdown()).as("Parent deadline keeps its own connection").isFalse();
+        assertThat(Thread.currentThread().isInterrupted()).isFalse();
+    }
+
+    private static void join(Thread thread) {
+        try {
+            thread.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // ==================== Inner Classes ====================
+
+    private static class FakeConnection implements HttpConnection {
+        private final CountDownLatch shutdown = new CountDownLatch(1);
+
+        boolean isShutdown() {
+            return shutdown.getCount() == 0;
+        }
+
+        void awaitShutdown() {
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (!isShutdown() && System.nanoTime() < deadline) {
+                try {
+                    shutdown.await(10, TimeUnit.MILLISECONDS);
+                } catch (InterruptedException e) {
+                    // ігнорується, як у socket read
+                }
+            }
+        }
+
+        @Override
+        public void shutdown() {
+            shutdown.countDown();
+        }
+
+        @Override
+        public void close() {
+            shutdown.countDown();
+        }
+
+        @Override
+        public boolean isOpen() {
+            return !isShutdown();
+        }
+
+        @Override
+        public boolean isStale() {
+            return isShutdown();
+        }
+
+        @Override
+        public void setSocketTimeout(int timeout) {
+        }
+
+        @Override
+        public int getSocketTimeout() {
+            return 0;
+        }
+
+        @Override
+        public HttpConnectionMetrics getMetrics() {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.erp.api.clients;
+
+import com.erp.api.endpoints.ApiEndpointDefinition;
+import com.erp.enums.RecorderMode;
+import com.erp.enums.UserRole;
+import io.restassured.builder.ResponseBuilder;
+import io.restassured.http.Header;
+import io.restassured.http.Headers;
+import io.restassured.response.Response;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for ExchangeRecorder: ERPX record → replay round-trip with exact and loose keys
+ */
+public class ExchangeRecorderTest {
+
+    private static final ApiEndpointDefinition CREATE = ApiEndpointDefinition.RESOURCE_CREATE;
+    private static final ApiEndpointDefinition GET_ALL = ApiEndpointDefinition.RESOURCE_GET_ALL;
+    private static final String PATH = "/api/v1/resources";
+
+    private Path file;
+
+    @BeforeMethod
+    public void createFile() throws IOException {
+        file = Files.createTempFile("exchanges", ".erpx");
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void deleteFile() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Test
+    public void testExactKeyReplaysInOrderThenRepeatsLast() {
+        ExchangeRecorder recorder = new ExchangeRecorder(RecorderMode.RECORD, file);
+        recorder.record(CREATE, UserRole.ADMIN, PATH, body("name", "a", "code", 1), response(201, "{\"id\":1}"));
+        recorder.record(CREATE, UserRole.ADMIN, PATH, body("name", "other"), response(201, "{\"id\":99}"));
+        recorder.record(CREATE, UserRole.ADMIN, PATH, body("name", "a", "code", 1), response(201, "{\"id\":2}"));
+        recorder.close();
+
+        ExchangeRecorder replay = new ExchangeRecorder(RecorderMode.REPLAY, file);
+        // Порядок полів тіла не впливає на ключ
+        Map<String, Object> reordered = body("code", 1, "name", "a");
+
+        assertThat(replay.replay(CREATE, UserRole.ADMIN, PATH, reordered).asString()).isEqualTo("{\"id\":1}");
+        assertThat(replay.replay(CREATE, UserRole.ADMIN, PATH, reordered).asString()).isEqualTo("{\"id\":2}");
+        assertThat(replay.replay(CREATE, UserRole.ADMIN, PATH, reordered).asString())
+                .as("Last recorded response is repeated")
+                .isEqualTo("{\"id\":2}");
+    }
+
+    @Test
+    public void testDifferentBodyFallsBackToLooseKey() {
+        ExchangeRecorder recorder = new ExchangeRecorder(RecorderMode.RECORD, file);
+        recorder.record(CREATE, UserRole.ADMIN, PATH, body("name", "faker-1"), response(201, "{\"id\":1}"));
+        recorder.record(CREATE, UserRole.ADMIN, PATH, body("name", "faker-2"), response(201, "{\"id\":2}"));
+        recorder.close();
+
+        ExchangeRecorder replay = new ExchangeRecorder(RecorderMode.REPLAY, file);
+
+        assertThat(replay.replay(CREATE, UserRole.ADMIN, PATH, body("name", "faker-3")).asString())
+                .isEqualTo("{\"id\":1}");
+        assertThat(replay.replay(CREATE, UserRole.ADMIN, PATH, body("name", "faker-4")).asString())
+                .as("Loose matches are served in recording order")
+                .isEqualTo("{\"id\":2}");
+    }
+
+    @Test
+    public void testResponseRoundTrip() {
+        ExchangeRecorder recorder = new ExchangeRecorder(RecorderMode.RECORD, file);
+        Response recorded = new ResponseBuilder()
+                .setStatusCode(404)
+                .setHeaders(new Headers(
+                        new Header("Content-Type", "application/json"),
+                        new Header("X-Trace", "abc"),
+                        new Header("Content-Encoding", "gzip")))
+                .setContentType("application/json")
+                .setBody("{\"error\":\"not found\"}")
+                .build();
+        recorder.record(GET_ALL, UserRole.OWNER_1, PATH, null, recorded);
+        recorder.close();
+
+        Response replayed = new ExchangeRecorder(RecorderMode.REPLAY, file).replay(GET_ALL, UserRole.OWNER_1, PATH, null);
+
+        assertThat(replayed.getStatusCode()).isEqualTo(404);
+        assertThat(replayed.asString()).isEqualTo("{\"error\":\"not found\"}");
+        assertThat(replayed.getHeader("X-Trace")).isEqualTo("abc");
+        assertThat(replayed.getHeader("Content-Encoding"))
+                .as("Body is stored decoded - transport headers are dropped")
+                .isNull();
+    }
+
+    @Test
+    public void testMissAndTruncatedTail() throws IOException {
+        ExchangeRecorder recorder = new ExchangeRecorder(RecorderMode.RECORD, file);
+        recorder.record(GET_ALL, UserRole.ADMIN, PATH, null, response(200, "[]"));
+        recorder.close();
+        // Обірваний запис: довжина більша, ніж лишилось у файлі
+        Files.write(file, ByteBuffer.allocate(6).putInt(1_000).array(), StandardOpenOption.APPEND);
+
+        ExchangeRecorder replay = new ExchangeRecorder(RecorderMode.REPLAY, file);
+
+        assertThat(replay.replay(GET_ALL, UserRole.ADMIN, PATH, null).asString()).isEqualTo("[]");
+        assertThatThrownBy(() -> replay.replay(GET_ALL, UserRole.OWNER_2, PATH, null))
+                .as("Other role was never recorded")
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    public void testRecordAfterCloseIsSkipped() {
+        ExchangeRecorder recorder = new ExchangeRecorder(RecorderMode.RECORD, file);
+        recorder.close();
+
+        recorder.record(GET_ALL, UserRole.ADMIN, PATH, null, response(200, "[]"));
+
+        assertThatThrownBy(() -> new ExchangeRecorder(RecorderMode.REPLAY, file).replay(GET_ALL, UserRole.ADMIN, PATH, null))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    private static Map<String, Object> body(Object... keyValues) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        for (int i = 0; i < keyValues.length; i += 2) {
+            body.put((String) keyValues[i], keyValues[i + 1]);
+        }
+        return body;
+    }
+
+    private static Response response(int status, String body) {
+        return new ResponseBuilder()
+                .setStatusCode(status)
+                .setContentType("application/json")
+                .setBody(body)
+                .build();
+    }
+}
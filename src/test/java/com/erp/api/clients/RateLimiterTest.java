@@ -0,0 +1,93 @@
+package com.erp.api.clients;
+
+import com.erp.api.endpoints.ApiEndpointDefinition;
+import com.erp.enums.UserRole;
+import org.testng.annotations.Test;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * Unit tests for RateLimiter.TokenBucket reservations (debt) and refund on interrupt
+ */
+public class RateLimiterTest {
+
+    private static final long MILLI = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final AtomicLong clock = new AtomicLong(TimeUnit.SECONDS.toNanos(1_000));
+
+    @Test
+    public void testBurstIsFreeThenReservationsQueueUp() {
+        RateLimiter.TokenBucket bucket = new RateLimiter.TokenBucket(10, 2, clock::get);
+
+        assertThat(bucket.reserve()).isZero();
+        assertThat(bucket.reserve()).isZero();
+        assertThat(bucket.reserve()).as("First in debt waits one interval").isCloseTo(100 * MILLI, within(MILLI));
+        assertThat(bucket.reserve()).as("Second in debt waits behind it").isCloseTo(200 * MILLI, within(MILLI));
+    }
+
+    @Test
+    public void testDebtIsRepaidOverTime() {
+        RateLimiter.TokenBucket bucket = new RateLimiter.TokenBucket(10, 2, clock::get);
+        for (int i = 0; i < 4; i++) {
+            bucket.reserve();
+        }
+
+        clock.addAndGet(300 * MILLI);
+
+        assertThat(bucket.reserve()).as("Debt of 2 repaid, one token left").isZero();
+        assertThat(bucket.reserve()).isCloseTo(100 * MILLI, within(MILLI));
+    }
+
+    @Test
+    public void testRefillIsCappedByBurst() {
+        RateLimiter.TokenBucket bucket = new RateLimiter.TokenBucket(10, 2, clock::get);
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(60));
+
+        assertThat(bucket.reserve()).isZero();
+        assertThat(bucket.reserve()).isZero();
+        assertThat(bucket.reserve()).as("Idle time does not exceed the burst").isPositive();
+    }
+
+    @Test
+    public void testInterruptedWaiterRefundsReservation() throws InterruptedException {
+        RateLimiter.TokenBucket bucket = new RateLimiter.TokenBucket(1, 1, clock::get);
+        RateLimiter limiter = new RateLimiter(Map.of(UserRole.ADMIN, bucket));
+        limiter.acquire(ApiEndpointDefinition.RESOURCE_GET_ALL, UserRole.ADMIN);
+
+        AtomicReference<RuntimeException> thrown = new AtomicReference<>();
+        AtomicBoolean interruptKept = new AtomicBoolean();
+        Thread waiter = Thread.ofPlatform().start(() -> {
+            try {
+                limiter.acquire(ApiEndpointDefinition.RESOURCE_GET_ALL, UserRole.ADMIN);
+            } catch (RuntimeException e) {
+                thrown.set(e);
+                interruptKept.set(Thread.currentThread().isInterrupted());
+            }
+        });
+        awaitState(waiter, Thread.State.TIMED_WAITING);
+        waiter.interrupt();
+        waiter.join(TimeUnit.SECONDS.toMillis(5));
+
+        assertThat(thrown.get()).isInstanceOf(IllegalStateException.class);
+        assertThat(interruptKept.get()).as("Interrupt flag is restored").isTrue();
+        assertThat(bucket.reserve())
+                .as("Refunded reservation: next caller waits one interval, not two")
+                .isCloseTo(TimeUnit.SECONDS.toNanos(1), within(MILLI));
+    }
+
+    private static void awaitState(Thread thread, Thread.State state) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (thread.getState() != state) {
+            assertThat(System.nanoTime()).as("Thread did not park").isLessThan(deadline);
+            Thread.sleep(1);
+        }
+    }
+}
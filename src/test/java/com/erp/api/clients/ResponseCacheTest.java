@@ -0,0 +1,92 @@
+package com.erp.api.clients;
+
+import io.restassured.builder.ResponseBuilder;
+import io.restassured.response.Response;
+import org.testng.annotations.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for ResponseCache: TTL, LRU eviction and path family invalidation
+ */
+public class ResponseCacheTest {
+
+    private static final String RESOURCES = "/api/v1/resources";
+    private static final String STORAGES = "/api/v1/storages";
+
+    private final AtomicLong clock = new AtomicLong(1_000_000);
+
+    @Test
+    public void testEntryExpiresAfterTtl() {
+        ResponseCache cache = new ResponseCache(true, 1_000, 10, clock::get);
+        Response response = ok();
+        cache.put("a", RESOURCES, cache.version(RESOURCES), response);
+
+        clock.addAndGet(1_000);
+        assertThat(cache.get("a")).as("Still fresh at exactly TTL").isSameAs(response);
+
+        clock.addAndGet(1);
+        assertThat(cache.get("a")).as("Expired after TTL").isNull();
+    }
+
+    @Test
+    public void testLeastRecentlyUsedIsEvicted() {
+        ResponseCache cache = new ResponseCache(true, 60_000, 2, clock::get);
+        cache.put("a", RESOURCES, cache.version(RESOURCES), ok());
+        cache.put("b", RESOURCES, cache.version(RESOURCES), ok());
+
+        assertThat(cache.get("a")).as("Access makes 'a' most recently used").isNotNull();
+        cache.put("c", RESOURCES, cache.version(RESOURCES), ok());
+
+        assertThat(cache.get("b")).as("'b' was least recently used").isNull();
+        assertThat(cache.get("a")).isNotNull();
+        assertThat(cache.get("c")).isNotNull();
+    }
+
+    @Test
+    public void testInvalidateDropsOnlyItsFamily() {
+        ResponseCache cache = new ResponseCache(true, 60_000, 10, clock::get);
+        cache.put("resources:ADMIN", RESOURCES, cache.version(RESOURCES), ok());
+        cache.put("resources:OWNER", RESOURCES, cache.version(RESOURCES), ok());
+        cache.put("storages:ADMIN", STORAGES, cache.version(STORAGES), ok());
+
+        cache.invalidate(RESOURCES);
+
+        assertThat(cache.get("resources:ADMIN")).isNull();
+        assertThat(cache.get("resources:OWNER")).isNull();
+        assertThat(cache.get("storages:ADMIN")).as("Other family is untouched").isNotNull();
+    }
+
+    @Test
+    public void testGetInFlightDuringWriteIsNotStored() {
+        ResponseCache cache = new ResponseCache(true, 60_000, 10, clock::get);
+        long versionBeforeRequest = cache.version(RESOURCES);
+
+        cache.invalidate(RESOURCES);
+        cache.put("a", RESOURCES, versionBeforeRequest, ok());
+
+        assertThat(cache.get("a")).as("Response may predate the write").isNull();
+    }
+
+    @Test
+    public void testNonSuccessResponseIsNotStored() {
+        ResponseCache cache = new ResponseCache(true, 60_000, 10, clock::get);
+        cache.put("a", RESOURCES, cache.version(RESOURCES), response(404));
+
+        assertThat(cache.get("a")).isNull();
+    }
+
+    private static Response ok() {
+        return response(200);
+    }
+
+    private static Response response(int status) {
+        return new ResponseBuilder()
+                .setStatusCode(status)
+                .setContentType("application/json")
+                .setBody("[]")
+                .build();
+    }
+}
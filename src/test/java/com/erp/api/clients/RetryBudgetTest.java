@@ -0,0 +1,52 @@
+package com.erp.api.clients;
+
+import org.testng.annotations.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for RetryBudget: reserve + ratio × windowed requests − windowed retries
+ */
+public class RetryBudgetTest {
+
+    private final AtomicLong clock = new AtomicLong(TimeUnit.SECONDS.toNanos(1_000));
+
+    @Test
+    public void testReserveAllowsRetriesWithoutTraffic() {
+        RetryBudget budget = new RetryBudget(0.1, 2, 10, clock::get);
+
+        assertThat(budget.tryAcquireRetry()).isTrue();
+        assertThat(budget.tryAcquireRetry()).isTrue();
+        assertThat(budget.tryAcquireRetry()).as("Reserve is spent").isFalse();
+    }
+
+    @Test
+    public void testCapIsReservePlusShareOfWindowedRequests() {
+        RetryBudget budget = new RetryBudget(0.1, 2, 10, clock::get);
+        for (int i = 0; i < 1_000; i++) {
+            budget.onRequest();
+        }
+
+        assertThat(budget.getBalance()).as("2 + 0.1 × 1000").isEqualTo(102.0);
+    }
+
+    @Test
+    public void testRequestsAndRetriesLeaveTheWindow() {
+        RetryBudget budget = new RetryBudget(0.1, 1, 10, clock::get);
+        for (int i = 0; i < 100; i++) {
+            budget.onRequest();
+        }
+        for (int i = 0; i < 11; i++) {
+            assertThat(budget.tryAcquireRetry()).isTrue();
+        }
+        assertThat(budget.tryAcquireRetry()).as("Budget exhausted within the window").isFalse();
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(10));
+
+        assertThat(budget.getBalance()).as("Only the reserve is left after the window").isEqualTo(1.0);
+        assertThat(budget.tryAcquireRetry()).isTrue();
+    }
+}
@@ -0,0 +1,108 @@
+package com.erp.api.clients;
+
+import com.erp.utils.SingleFlight;
+import org.testng.annotations.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for SingleFlight: shared result / failure of the leader and key release
+ */
+public class SingleFlightTest {
+
+    private static final long TIMEOUT_SECONDS = 5;
+
+    @Test
+    public void testWaiterReceivesLeaderResult() throws Exception {
+        SingleFlight<String, String> flight = new SingleFlight<>();
+        CountDownLatch joined = new CountDownLatch(1);
+        AtomicInteger executions = new AtomicInteger();
+
+        CompletableFuture<String> leader = CompletableFuture.supplyAsync(() -> flight.execute("key", () -> {
+            executions.incrementAndGet();
+            await(joined);
+            return "value";
+        }));
+        waitUntilInFlight(flight);
+        String shared = flight.execute("key", () -> {
+            executions.incrementAndGet();
+            return "other";
+        }, joined::countDown);
+
+        assertThat(shared).isEqualTo("value");
+        assertThat(leader.get(TIMEOUT_SECONDS, TimeUnit.SECONDS)).isEqualTo("value");
+        assertThat(executions.get()).as("Only the leader runs the action").isEqualTo(1);
+    }
+
+    @Test
+    public void testLeaderFailureIsPropagatedToWaiters() {
+        SingleFlight<String, String> flight = new SingleFlight<>();
+        CountDownLatch joined = new CountDownLatch(1);
+        IllegalStateException failure = new IllegalStateException("boom");
+
+        CompletableFuture<String> leader = CompletableFuture.supplyAsync(() -> flight.execute("key", () -> {
+            await(joined);
+            throw failure;
+        }));
+        waitUntilInFlight(flight);
+
+        assertThatThrownBy(() -> flight.execute("key", () -> "other", joined::countDown))
+                .as("Waiter gets the leader's exception itself, not a wrapper")
+                .isSameAs(failure);
+        assertThatThrownBy(() -> leader.get(TIMEOUT_SECONDS, TimeUnit.SECONDS))
+                .hasCauseReference(failure);
+    }
+
+    @Test
+    public void testKeyIsReleasedAfterSuccessAndFailure() {
+        SingleFlight<String, String> flight = new SingleFlight<>();
+        AtomicInteger executions = new AtomicInteger();
+
+        assertThat(flight.execute("key", () -> "v" + executions.incrementAndGet())).isEqualTo("v1");
+        assertThat(flight.inFlightCount()).isZero();
+        assertThat(flight.execute("key", () -> "v" + executions.incrementAndGet()))
+                .as("Nothing is cached after completion")
+                .isEqualTo("v2");
+
+        assertThatThrownBy(() -> flight.execute("key", () -> {
+            throw new IllegalStateException("boom");
+        })).isInstanceOf(IllegalStateException.class);
+        assertThat(flight.inFlightCount()).as("Failed leader releases the key").isZero();
+        assertThat(flight.execute("key", () -> "v" + executions.incrementAndGet())).isEqualTo("v3");
+    }
+
+    @Test
+    public void testDifferentKeysDoNotShare() {
+        SingleFlight<String, String> flight = new SingleFlight<>();
+        AtomicInteger shared = new AtomicInteger();
+
+        String value = flight.execute("a", () -> flight.execute("b", () -> "inner", shared::incrementAndGet),
+                shared::incrementAndGet);
+
+        assertThat(value).isEqualTo("inner");
+        assertThat(shared.get()).isZero();
+    }
+
+    private static void waitUntilInFlight(SingleFlight<?, ?> flight) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(TIMEOUT_SECONDS);
+        while (flight.inFlightCount() == 0) {
+            assertThat(System.nanoTime()).as("Leader did not start").isLessThan(deadline);
+            Thread.onSpinWait();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertThat(latch.await(TIMEOUT_SECONDS, TimeUnit.SECONDS)).as("Waiter did not join").isTrue();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -7,10 +7,7 @@ import com.erp.models.rbac.EndpointAccessRule;
 import com.erp.test_context.GlobalTestContext;
 import com.erp.tests.BaseTest;
 import io.qameta.allure.Step;
-import io.restassured.RestAssured;
-import io.restassured.http.ContentType;
 import io.restassured.response.Response;
-import io.restassured.specification.RequestSpecification;
 import lombok.extern.slf4j.Slf4j;
 import org.testng.annotations.BeforeClass;
 
@@ -78,6 +75,7 @@ public class BaseRbacTest extends BaseTest {
 
         // 2. Визначаємо фінальний шлях (з підставленим ID)
         String finalPath;
+        String pathParam = null;
 
         if (definition.hasPathVariables()) {
             // Перевіряємо, чи вказано ключ у YAML
@@ -97,7 +95,8 @@ public class BaseRbacTest extends BaseTest {
 
             // 🔥 ВАЖЛИВО: Замінюємо {id} на реальне число (наприклад, "123")
             // RestAssured отримає чистий URL без плейсхолдерів
-            finalPath = definition.getPath(id);
+            pathParam = String.valueOf(id);
+            finalPath = definition.getPath(pathParam);
         } else {
             finalPath = definition.getPathTemplate();
         }
@@ -105,17 +104,8 @@ public class BaseRbacTest extends BaseTest {
         log.info("📡 [RBAC] {} {} | Role: {} | Key: {}",
                 definition.getHttpMethod(), finalPath, role, rule.getContextKey());
 
-        // 3. Формуємо запит
-        RequestSpecification requestSpec = RestAssured.given()
-                .cookies(getSessionForRole(role))
-                .contentType(ContentType.JSON);
-
-        if (requestBody != null) {
-            requestSpec.body(requestBody);
-        }
-
-        // 4. Виконуємо запит за фінальним шляхом
-        Response response = requestSpec.request(definition.getHttpMethod(), finalPath);
+        // 3. Виконуємо через ApiExecutor - готовий шаблон запиту per (endpoint, role)
+        Response response = apiExecutor.execute(definition, role, requestBody, pathParam);
 
         log.info("📥 Response: {} ({} ms)", response.getStatusCode(), response.getTime());
         return response;
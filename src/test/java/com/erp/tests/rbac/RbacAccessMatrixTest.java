@@ -1,6 +1,7 @@
 package com.erp.tests.rbac;
 
 import com.erp.annotations.TestCaseId;
+import com.erp.api.clients.BufferedResponse;
 import com.erp.data.RbacAccessMatrix;
 import com.erp.enums.UserRole;
 import com.erp.fixtures.RbacFixture;
@@ -13,6 +14,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.testng.SkipException;
 import org.testng.annotations.*;
 
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static com.erp.utils.helpers.AllureHelper.attachSchemaValidationInfo;
 import static org.assertj.core.api.Assertions.assertThat;
@@ -22,10 +24,11 @@ import static org.assertj.core.api.Assertions.assertThat;
 @Feature("RBAC - Role-Based Access Control")
 public class RbacAccessMatrixTest extends BaseRbacTest {
 
-    private int totalTests = 0;
-    private int passedTests = 0;
-    private int failedTests = 0;
-    private int skippedTests = 0;
+    // Atomic - data provider може виконуватись паралельно (virtual threads mode)
+    private final AtomicInteger totalTests = new AtomicInteger();
+    private final AtomicInteger passedTests = new AtomicInteger();
+    private final AtomicInteger failedTests = new AtomicInteger();
+    private final AtomicInteger skippedTests = new AtomicInteger();
 
 
     @BeforeClass(alwaysRun = true, dependsOnMethods = "rbacClassSetup")
@@ -59,7 +62,7 @@ public class RbacAccessMatrixTest extends BaseRbacTest {
         }
 
         Object[][] data = RbacAccessMatrix.generateTestData(testContext);
-        totalTests = data.length;
+        totalTests.set(data.length);
         return data;
     }
 
@@ -78,7 +81,7 @@ public class RbacAccessMatrixTest extends BaseRbacTest {
 
         // === SKIP LOGIC ===
         if (!rule.canExecute()) {
-            skippedTests++;
+            skippedTests.incrementAndGet();
             throw new SkipException(rule.getSkipReason());
         }
 
@@ -103,10 +106,10 @@ public class RbacAccessMatrixTest extends BaseRbacTest {
                     .isEqualTo(expectedStatusCode);
 
             performAdditionalValidations(rule, response, accessType, role);
-            passedTests++;
+            passedTests.incrementAndGet();
 
         } catch (AssertionError e) {
-            failedTests++;
+            failedTests.incrementAndGet();
             log.error("❌ RBAC Violation: expected {}, but got {}", expectedStatusCode, response.statusCode());
             throw e;
         }
@@ -124,7 +127,7 @@ public class RbacAccessMatrixTest extends BaseRbacTest {
     @Step("Validate ALLOWED access details")
     private void validateAllowedAccess(EndpointAccessRule rule, Response response, UserRole role) {
         if (rule.getHttpMethod() != Method.DELETE && response.statusCode() != 204) {
-            assertThat(response.body().asString()).isNotEmpty();
+            assertThat(BufferedResponse.of(response).asString()).isNotEmpty();
         }
 
         if (rule.hasSchema()) {
@@ -143,8 +146,9 @@ public class RbacAccessMatrixTest extends BaseRbacTest {
     @Step("Attach Response")
     private void attachResponseDetails(Response response) {
         Allure.addAttachment("Status Code", String.valueOf(response.statusCode()));
-        if (!response.body().asString().isEmpty()) {
-            Allure.addAttachment("Response Body", "application/json", response.body().asString(), "json");
+        BufferedResponse body = BufferedResponse.of(response);
+        if (!body.isEmpty()) {
+            Allure.addAttachment("Response Body", "application/json", body.asString(), "json");
         }
     }
 